@@ -0,0 +1,117 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+    Advances many actors by one simulation step, on the calling thread or on fork/join workers
+    every actor only reads the static colliders and writes its own state and its own contacts,
+    so partitions run without locks and the result is the same as the single threaded step
+    the collider source must not be modified while a step is running
+*/
+public class ActorBatch {
+    public static final int DEFAULT_PARTITION_SIZE = 64;
+
+    private final ArrayList<Player> actors = new ArrayList<>();
+    private final ArrayList<PlayerContacts> contacts = new ArrayList<>();
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+
+    public ActorBatch() {
+        this(ForkJoinPool.commonPool(), DEFAULT_PARTITION_SIZE);
+    }
+
+    /*
+        partitionSize is the number of actors stepped by a worker without splitting further
+    */
+    public ActorBatch(ForkJoinPool pool, int partitionSize) {
+        if (partitionSize <= 0) {
+            throw new IllegalArgumentException("partitionSize must be positive: " + partitionSize);
+        }
+        this.pool = pool;
+        this.partitionSize = partitionSize;
+    }
+
+    public void add(Player actor) {
+        actors.add(actor);
+        contacts.add(new PlayerContacts());
+    }
+
+    public boolean remove(Player actor) {
+        int index = actors.indexOf(actor);
+        if (index < 0) {
+            return false;
+        }
+        actors.remove(index);
+        contacts.remove(index);
+        return true;
+    }
+
+    public int size() {
+        return actors.size();
+    }
+
+    public Player getActor(int index) {
+        return actors.get(index);
+    }
+
+    // contacts of the actor at the end of the last step
+    public PlayerContacts getContacts(int index) {
+        return contacts.get(index);
+    }
+
+    public void step(float deltaTime, ColliderSource colliders) {
+        stepRange(0, actors.size(), deltaTime, colliders);
+    }
+
+    // same as step but the actors are split into partitions advanced by the pool workers
+    public void stepParallel(float deltaTime, ColliderSource colliders) {
+        if (actors.size() <= partitionSize) {
+            step(deltaTime, colliders);
+            return;
+        }
+        pool.invoke(new StepTask(this, 0, actors.size(), deltaTime, colliders));
+    }
+
+    private void stepRange(int from, int to, float deltaTime, ColliderSource colliders) {
+        for (int i = from; i < to; i++) {
+            Player actor = actors.get(i);
+            PlayerContacts actorContacts = contacts.get(i);
+            actor.beginStep();
+            // the contacts left by the last step are used and filled again for the new position
+            actor.updatePosition(deltaTime, actorContacts, colliders);
+        }
+    }
+
+    private static class StepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ActorBatch batch;
+        private final int from;
+        private final int to;
+        private final float deltaTime;
+        private final ColliderSource colliders;
+
+        StepTask(ActorBatch batch, int from, int to, float deltaTime, ColliderSource colliders) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.deltaTime = deltaTime;
+            this.colliders = colliders;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batch.partitionSize) {
+                batch.stepRange(from, to, deltaTime, colliders);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                new StepTask(batch, from, middle, deltaTime, colliders),
+                new StepTask(batch, middle, to, deltaTime, colliders)
+            );
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.FloorCollisionTest.Engine;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/*
+    Shared clock of every tile playing the same Animation with the same style
+    the clock is advanced once per frame and the current frame is resolved once,
+    the tiles of the group only read it; a tile with a phase offset resolves its own frame
+    from the same clock when it's drawn
+*/
+public class AnimationGroup {
+    private final Animation<TextureRegion> animation;
+    private final int animationStyle;
+    private final boolean looping;
+    private float stateTime;
+    private TextureRegion currentFrame;
+    // number of AnimationGroups.get calls not released yet
+    int users;
+
+    public AnimationGroup(Animation<TextureRegion> animation, int animationStyle, boolean looping) {
+        if (animation == null) {
+            throw new IllegalArgumentException("animation can't be null");
+        }
+        this.animation = animation;
+        this.animationStyle = animationStyle;
+        this.looping = looping;
+        this.currentFrame = Easings.resolveFrame(animation, animationStyle, 0f, looping);
+    }
+
+    public void update(float deltaTime) {
+        stateTime += deltaTime;
+        currentFrame = Easings.resolveFrame(animation, animationStyle, stateTime, looping);
+    }
+
+    public TextureRegion getKeyFrame() {
+        return currentFrame;
+    }
+
+    // frame of a member that is phaseOffset seconds ahead of the group
+    public TextureRegion getKeyFrame(float phaseOffset) {
+        if (phaseOffset == 0f) {
+            return currentFrame;
+        }
+        return Easings.resolveFrame(animation, animationStyle, stateTime + phaseOffset, looping);
+    }
+
+    public Animation<TextureRegion> getAnimation() {
+        return animation;
+    }
+
+    public int getAnimationStyle() {
+        return animationStyle;
+    }
+
+    public boolean isLooping() {
+        return looping;
+    }
+
+    public float getStateTime() {
+        return stateTime;
+    }
+
+    public void reset() {
+        stateTime = 0f;
+        currentFrame = Easings.resolveFrame(animation, animationStyle, 0f, looping);
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.ArrayList;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/*
+    Set of AnimationGroup, one for every distinct Animation, style and looping flag
+    update costs one clock per group, however many tiles are in the groups
+*/
+public class AnimationGroups {
+    private final ArrayList<AnimationGroup> groups = new ArrayList<>();
+
+    /*
+        returns the group of the animation, created the first time it's asked for
+        animations are compared by instance, tiles must share the Animation to share the group
+        every call counts as a user of the group until it's released
+    */
+    public AnimationGroup get(Animation<TextureRegion> animation, int animationStyle, boolean looping) {
+        for (int i = 0; i < groups.size(); i++) {
+            AnimationGroup group = groups.get(i);
+            if (group.getAnimation() == animation && group.getAnimationStyle() == animationStyle && group.isLooping() == looping) {
+                group.users++;
+                return group;
+            }
+        }
+        AnimationGroup group = new AnimationGroup(animation, animationStyle, looping);
+        group.users = 1;
+        groups.add(group);
+        return group;
+    }
+
+    // the group is dropped when its last user releases it
+    public void release(AnimationGroup group) {
+        if (--group.users <= 0) {
+            groups.remove(group);
+        }
+    }
+
+    public void update(float deltaTime) {
+        for (int i = 0; i < groups.size(); i++) {
+            groups.get(i).update(deltaTime);
+        }
+    }
+
+    public int size() {
+        return groups.size();
+    }
+
+    public void clear() {
+        groups.clear();
+    }
+}
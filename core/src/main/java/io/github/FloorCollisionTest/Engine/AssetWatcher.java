@@ -0,0 +1,220 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/*
+    Development hot reload of tile maps and sprite sheets, enabled with -DhotReload=true
+    a daemon thread waits for the watched files to change on disk and posts the changes
+    to the GL thread, where a map is diffed against the loaded one and only its changed cells
+    are applied, see TileMap.applyChanges, and a sheet is uploaded again into the same texture
+    a map is read like it was loaded, from the compiled map when it's current
+    the watch methods and the reloads run on the GL thread only
+*/
+public class AssetWatcher implements Disposable {
+    // editors write a file in more steps, the changes are applied once the files are quiet
+    private static final long QUIET_MILLIS = 100;
+    private static final String TAG = "AssetWatcher";
+
+    private final TextureCache textures;
+    private final WatchService watchService;
+
+    // watched files by absolute path, with the path they are loaded from
+    private final HashMap<Path, String> texturePaths = new HashMap<>();
+    private final HashMap<Path, String> mapPaths = new HashMap<>();
+    private final HashMap<Path, TileMap> maps = new HashMap<>();
+    private final HashSet<Path> directories = new HashSet<>();
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("hotReload");
+    }
+
+    public AssetWatcher(TextureCache textures) {
+        this.textures = textures;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("couldn't start watching the assets", e);
+        }
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, TAG);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // every texture currently in the cache is uploaded again when its file changes
+    public void watchTextures() {
+        for (String path : textures.getTexturePaths()) {
+            watchTexture(path);
+        }
+    }
+
+    public void watchTexture(String path) {
+        Path file = resolve(path);
+        if (file != null && register(file)) {
+            texturePaths.put(file, path);
+        }
+    }
+
+    /*
+        the map, built from jsonFile, gets the cells changed in the file or in the binary map
+        compiled next to it, see TileMapFormat.read; the sprites of the map are watched too,
+        the ones a reload adds included
+    */
+    public void watchMap(TileMap map, String jsonFile) {
+        Path file = resolve(jsonFile);
+        if (file != null && register(file)) {
+            mapPaths.put(file, jsonFile);
+            maps.put(file, map);
+            // the compiled map is in the same directory, it may be written after the map is watched
+            Path compiled = file.resolveSibling(TileMapFormat.compiledFile(Gdx.files.internal(jsonFile)).name());
+            mapPaths.put(compiled, jsonFile);
+            maps.put(compiled, map);
+        }
+        watchSprites(map);
+    }
+
+    public void unwatchMap(TileMap map) {
+        for (Path file : new HashSet<>(maps.keySet())) {
+            if (maps.get(file) == map) {
+                maps.remove(file);
+                mapPaths.remove(file);
+            }
+        }
+    }
+
+    private void watchSprites(TileMap map) {
+        for (short id = 0; id < map.getPaletteSize(); id++) {
+            TileType type = map.getPaletteType(id);
+            for (int i = 0; i < type.getSpriteCount(); i++) {
+                if (!texturePaths.containsValue(type.getSprite(i))) {
+                    watchTexture(type.getSprite(i));
+                }
+            }
+        }
+    }
+
+    // absolute path of an internal file, null when it's not on disk, like inside the jar
+    private static Path resolve(String path) {
+        File file = Gdx.files.internal(path).file();
+        if (!file.exists()) {
+            return null;
+        }
+        return file.getAbsoluteFile().toPath().normalize();
+    }
+
+    private boolean register(Path file) {
+        Path directory = file.getParent();
+        if (directories.contains(directory)) {
+            return true;
+        }
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "couldn't watch " + directory, e);
+            return false;
+        }
+        directories.add(directory);
+        return true;
+    }
+
+    // body of the watcher thread, returns when the watch service is closed
+    private void watch() {
+        try {
+            while (true) {
+                HashSet<Path> changed = new HashSet<>();
+                collect(watchService.take(), changed);
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+                final Path[] files = changed.toArray(new Path[0]);
+                Gdx.app.postRunnable(new Runnable() {
+                    @Override
+                    public void run() {
+                        reload(files);
+                    }
+                });
+            }
+        } catch (ClosedWatchServiceException e) {
+            // disposed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void collect(WatchKey key, HashSet<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() != StandardWatchEventKinds.OVERFLOW) {
+                changed.add(directory.resolve((Path) event.context()).toAbsolutePath().normalize());
+            }
+        }
+        key.reset();
+    }
+
+    /*
+        runs on the GL thread, a file that can't be read yet keeps what was loaded before
+        a map whose JSON and compiled map both changed is read once
+    */
+    private void reload(Path[] files) {
+        HashSet<TileMap> reloaded = new HashSet<>();
+        for (Path file : files) {
+            try {
+                String texturePath = texturePaths.get(file);
+                if (texturePath != null) {
+                    long start = System.nanoTime();
+                    if (textures.reloadTexture(texturePath)) {
+                        Gdx.app.log(TAG, "reloaded " + texturePath + " in " + millisSince(start) + " ms");
+                    }
+                }
+                TileMap map = maps.get(file);
+                if (map != null && reloaded.add(map)) {
+                    long start = System.nanoTime();
+                    String jsonFile = mapPaths.get(file);
+                    int changed = map.applyChanges(TileMapFormat.read(Gdx.files.internal(jsonFile)));
+                    watchSprites(map);
+                    Gdx.app.log(TAG, "reloaded " + jsonFile + ", " + changed + " cells changed in " + millisSince(start) + " ms");
+                }
+            } catch (GdxRuntimeException | IllegalArgumentException e) {
+                Gdx.app.error(TAG, "couldn't reload " + file, e);
+            }
+        }
+    }
+
+    private static float millisSince(long start) {
+        return (System.nanoTime() - start) / 1000000f;
+    }
+
+    // stops watching, the maps and textures keep what they loaded
+    @Override
+    public void dispose() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "couldn't stop watching the assets", e);
+        }
+        maps.clear();
+        mapPaths.clear();
+        texturePaths.clear();
+        directories.clear();
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/*
+    Loads textures into a TextureCache without blocking the render thread
+    the files are read and decoded into Pixmaps by worker threads, the GL thread then uploads
+    them in update, stopping when the time budget of the frame is spent; a screen can keep
+    rendering a progress bar while the level loads
+    request, update and getProgress must be called on the GL thread
+*/
+public class AsyncTextureLoader implements Disposable {
+    public static final float DEFAULT_BUDGET_MILLIS = 4f;
+
+    private static class Decoded {
+        final String path;
+        final Pixmap pixmap;
+        final Throwable error;
+
+        Decoded(String path, Pixmap pixmap, Throwable error) {
+            this.path = path;
+            this.pixmap = pixmap;
+            this.error = error;
+        }
+    }
+
+    private final TextureCache cache;
+    private final ExecutorService workers;
+    // pixmaps decoded by the workers waiting for their upload
+    private final ConcurrentLinkedQueue<Decoded> decoded = new ConcurrentLinkedQueue<>();
+    private final HashSet<String> pending = new HashSet<>();
+    private int requested;
+    private int uploaded;
+
+    public AsyncTextureLoader(TextureCache cache) {
+        this(cache, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public AsyncTextureLoader(TextureCache cache, int workerCount) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("workerCount must be positive: " + workerCount);
+        }
+        this.cache = cache;
+        this.workers = Executors.newFixedThreadPool(workerCount, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "texture-decoder");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    // queues the texture at path, nothing is done when it's already loaded or queued
+    public void request(final String path) {
+        if (cache.isLoaded(path) || !pending.add(path)) {
+            return;
+        }
+        requested++;
+        workers.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    decoded.add(new Decoded(path, SpriteSheet.decode(Gdx.files.internal(path)), null));
+                } catch (Throwable error) {
+                    decoded.add(new Decoded(path, null, error));
+                }
+            }
+        });
+    }
+
+    public void request(String[] paths) {
+        for (String path : paths) {
+            request(path);
+        }
+    }
+
+    /*
+        uploads the decoded pixmaps until budgetMillis have passed, at least one is uploaded
+        per call when ready, returns true when every requested texture is in the cache
+        a file that couldn't be read or decoded is reported here, on the GL thread
+    */
+    public boolean update(float budgetMillis) {
+        long deadline = TimeUtils.nanoTime() + (long) (budgetMillis * 1000000L);
+        Decoded next;
+        while ((next = decoded.poll()) != null) {
+            pending.remove(next.path);
+            if (next.error != null) {
+                throw new GdxRuntimeException("couldn't load texture: " + next.path, next.error);
+            }
+            Texture texture = new Texture(next.pixmap);
+            next.pixmap.dispose();
+            cache.adoptTexture(next.path, texture);
+            uploaded++;
+            if (TimeUtils.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return isFinished();
+    }
+
+    public boolean update() {
+        return update(DEFAULT_BUDGET_MILLIS);
+    }
+
+    public boolean isFinished() {
+        return uploaded == requested;
+    }
+
+    // fraction of the requested textures that are uploaded, 1 when nothing was requested
+    public float getProgress() {
+        return requested == 0 ? 1f : uploaded / (float) requested;
+    }
+
+    // stops the workers, the pixmaps decoded but not uploaded are freed
+    @Override
+    public void dispose() {
+        workers.shutdownNow();
+        Decoded next;
+        while ((next = decoded.poll()) != null) {
+            if (next.pixmap != null) {
+                next.pixmap.dispose();
+            }
+        }
+        pending.clear();
+    }
+}
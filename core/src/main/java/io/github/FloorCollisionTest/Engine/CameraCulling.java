@@ -0,0 +1,26 @@
+package io.github.FloorCollisionTest.Engine;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+    Visible area of an OrthographicCamera, used to skip the tiles that are off-screen
+    the margin keeps sprites bigger than their cell, and the frame the camera still moves,
+    from popping in at the border of the screen
+*/
+public final class CameraCulling {
+    public static final float DEFAULT_MARGIN = 64f;
+
+    private CameraCulling() {}
+
+    // world area seen by the camera grown by margin on every side, the camera is not rotated
+    public static Rectangle visibleArea(OrthographicCamera camera, float margin, Rectangle out) {
+        float halfWidth = camera.viewportWidth * camera.zoom * 0.5f + margin;
+        float halfHeight = camera.viewportHeight * camera.zoom * 0.5f + margin;
+        return out.set(camera.position.x - halfWidth, camera.position.y - halfHeight, halfWidth * 2f, halfHeight * 2f);
+    }
+
+    public static Rectangle visibleArea(OrthographicCamera camera, Rectangle out) {
+        return visibleArea(camera, DEFAULT_MARGIN, out);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.FloorCollisionTest.Engine;
+
+/*
+    Source of the chunks of a ChunkedWorld, a grid of chunksX x chunksY TileMaps of the same world size
+*/
+public interface ChunkProvider {
+    int getChunksX();
+
+    int getChunksY();
+
+    // world size of a chunk
+    float getChunkWidth();
+
+    float getChunkHeight();
+
+    /*
+        builds the chunk with its cells in world coordinates, or returns null when it has no cells
+        the chunk plays its animations through the given groups and bakes its static cells in the given cache
+    */
+    TileMap loadChunk(int chunkX, int chunkY, AnimationGroups animationGroups, SpriteCachePool staticCache);
+}
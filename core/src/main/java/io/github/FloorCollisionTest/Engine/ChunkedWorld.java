@@ -0,0 +1,262 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+
+/*
+    World made of TileMap chunks streamed around a focus point, usually the camera or the player
+    stream loads every chunk within loadRadius chunks of the focus, plus the next ring in the
+    direction the focus is moving, and evicts the least recently used chunks outside the radius
+    while the resident chunks go over the memory budget
+    collision queries and rendering go through the resident chunks as if they were one map,
+    the world must not be streamed while a collision query runs on another thread
+    the static geometry of every chunk is baked in one shared SpriteCachePool
+*/
+public class ChunkedWorld implements ColliderSource, Disposable {
+    public static final int DEFAULT_LOAD_RADIUS = 1;
+    public static final long DEFAULT_MEMORY_BUDGET = 16L * 1024 * 1024;
+
+    private static final byte UNLOADED = 0;
+    private static final byte RESIDENT = 1;
+    // the provider has nothing there, the chunk is never asked again
+    private static final byte EMPTY = 2;
+
+    private final ChunkProvider provider;
+    private final int chunksX;
+    private final int chunksY;
+    private final float chunkWidth;
+    private final float chunkHeight;
+    private final int loadRadius;
+    private final long memoryBudget;
+
+    private final TileMap[] chunks;
+    private final byte[] states;
+    // estimated size of every resident chunk, measured again before evicting since a chunk grows as it's reached
+    private final long[] chunkBytes;
+    // resident chunk indices, least recently used first
+    private final LinkedHashMap<Integer, TileMap> recentlyUsed = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+
+    // every chunk shares the same clocks and the same static cache
+    private final AnimationGroups animationGroups = new AnimationGroups();
+    private final SpriteCachePool staticCache = new SpriteCachePool();
+
+    private float lastFocusX = Float.NaN;
+    private float lastFocusY = Float.NaN;
+    private int focusChunkX;
+    private int focusChunkY;
+
+    private final Rectangle visibleArea = new Rectangle();
+
+    public ChunkedWorld(ChunkProvider provider) {
+        this(provider, DEFAULT_LOAD_RADIUS, DEFAULT_MEMORY_BUDGET);
+    }
+
+    /*
+        loadRadius is in chunks, memoryBudget in bytes as estimated by TileMap.getEstimatedBytes;
+        the chunks within the radius stay resident even over the budget
+    */
+    public ChunkedWorld(ChunkProvider provider, int loadRadius, long memoryBudget) {
+        if (loadRadius < 0) {
+            throw new IllegalArgumentException("loadRadius must not be negative: " + loadRadius);
+        }
+        this.provider = provider;
+        this.chunksX = provider.getChunksX();
+        this.chunksY = provider.getChunksY();
+        this.chunkWidth = provider.getChunkWidth();
+        this.chunkHeight = provider.getChunkHeight();
+        this.loadRadius = loadRadius;
+        this.memoryBudget = memoryBudget;
+        this.chunks = new TileMap[chunksX * chunksY];
+        this.states = new byte[chunksX * chunksY];
+        this.chunkBytes = new long[chunksX * chunksY];
+    }
+
+    public void stream(OrthographicCamera camera) {
+        stream(camera.position.x, camera.position.y);
+    }
+
+    /*
+        streams the chunks around the focus, the direction of travel is the movement
+        of the focus since the last call
+    */
+    public void stream(float focusX, float focusY) {
+        int directionX = Float.isNaN(lastFocusX) ? 0 : (int) Math.signum(focusX - lastFocusX);
+        int directionY = Float.isNaN(lastFocusY) ? 0 : (int) Math.signum(focusY - lastFocusY);
+        lastFocusX = focusX;
+        lastFocusY = focusY;
+        focusChunkX = (int) Math.floor(focusX / chunkWidth);
+        focusChunkY = (int) Math.floor(focusY / chunkHeight);
+
+        for (int dy = -loadRadius; dy <= loadRadius; dy++) {
+            for (int dx = -loadRadius; dx <= loadRadius; dx++) {
+                require(focusChunkX + dx, focusChunkY + dy);
+            }
+        }
+
+        // prefetch the ring the focus is moving into
+        int ahead = loadRadius + 1;
+        if (directionX != 0) {
+            for (int dy = -loadRadius; dy <= loadRadius; dy++) {
+                require(focusChunkX + directionX * ahead, focusChunkY + dy);
+            }
+        }
+        if (directionY != 0) {
+            for (int dx = -loadRadius; dx <= loadRadius; dx++) {
+                require(focusChunkX + dx, focusChunkY + directionY * ahead);
+            }
+        }
+        if (directionX != 0 && directionY != 0) {
+            require(focusChunkX + directionX * ahead, focusChunkY + directionY * ahead);
+        }
+
+        evict();
+    }
+
+    // advances the animations of every chunk
+    public void updateAnimations(float deltaTime) {
+        animationGroups.update(deltaTime);
+    }
+
+    private void require(int chunkX, int chunkY) {
+        if (chunkX < 0 || chunkY < 0 || chunkX >= chunksX || chunkY >= chunksY) {
+            return;
+        }
+        int index = chunkY * chunksX + chunkX;
+        if (states[index] == RESIDENT) {
+            // marks the chunk as used
+            recentlyUsed.get(index);
+            return;
+        }
+        if (states[index] == EMPTY) {
+            return;
+        }
+        TileMap chunk = provider.loadChunk(chunkX, chunkY, animationGroups, staticCache);
+        if (chunk == null) {
+            states[index] = EMPTY;
+            return;
+        }
+        chunks[index] = chunk;
+        states[index] = RESIDENT;
+        recentlyUsed.put(index, chunk);
+        chunkBytes[index] = chunk.getEstimatedBytes();
+        residentBytes += chunkBytes[index];
+    }
+
+    private void evict() {
+        residentBytes = 0;
+        for (Map.Entry<Integer, TileMap> entry : recentlyUsed.entrySet()) {
+            chunkBytes[entry.getKey()] = entry.getValue().getEstimatedBytes();
+            residentBytes += chunkBytes[entry.getKey()];
+        }
+        Iterator<Map.Entry<Integer, TileMap>> entries = recentlyUsed.entrySet().iterator();
+        while (residentBytes > memoryBudget && entries.hasNext()) {
+            Map.Entry<Integer, TileMap> entry = entries.next();
+            int index = entry.getKey();
+            int chunkX = index % chunksX;
+            int chunkY = index / chunksX;
+            if (Math.abs(chunkX - focusChunkX) <= loadRadius && Math.abs(chunkY - focusChunkY) <= loadRadius) {
+                continue;
+            }
+            entries.remove();
+            residentBytes -= chunkBytes[index];
+            entry.getValue().dispose();
+            chunks[index] = null;
+            states[index] = UNLOADED;
+        }
+    }
+
+    public TileMap getChunk(int chunkX, int chunkY) {
+        if (chunkX < 0 || chunkY < 0 || chunkX >= chunksX || chunkY >= chunksY) {
+            return null;
+        }
+        return chunks[chunkY * chunksX + chunkX];
+    }
+
+    public int getResidentChunkCount() {
+        return recentlyUsed.size();
+    }
+
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /*
+        appends the colliders of the resident chunks touching the area,
+        chunks that aren't loaded have no colliders
+    */
+    @Override
+    public void gatherColliders(float x, float y, float width, float height, ColliderStore out) {
+        // chunks whose right or top edge lies exactly on the area border are touching it too
+        int fromX = Math.max((int) Math.ceil(x / chunkWidth) - 1, 0);
+        int fromY = Math.max((int) Math.ceil(y / chunkHeight) - 1, 0);
+        int toX = Math.min((int) Math.floor((x + width) / chunkWidth), chunksX - 1);
+        int toY = Math.min((int) Math.floor((y + height) / chunkHeight), chunksY - 1);
+        for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+            for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                TileMap chunk = chunks[chunkY * chunksX + chunkX];
+                if (chunk != null) {
+                    chunk.gatherColliders(x, y, width, height, out);
+                }
+            }
+        }
+    }
+
+    /*
+        draws the resident chunks seen by the camera: the static geometry of every chunk first,
+        outside the batch, then the animated cells through the batch
+    */
+    public void render(SpriteBatch batch, OrthographicCamera camera) {
+        CameraCulling.visibleArea(camera, visibleArea);
+        int fromX = Math.max((int) Math.floor(visibleArea.x / chunkWidth), 0);
+        int fromY = Math.max((int) Math.floor(visibleArea.y / chunkHeight), 0);
+        int toX = Math.min((int) Math.floor((visibleArea.x + visibleArea.width) / chunkWidth), chunksX - 1);
+        int toY = Math.min((int) Math.floor((visibleArea.y + visibleArea.height) / chunkHeight), chunksY - 1);
+
+        boolean drawing = batch.isDrawing();
+        if (drawing) {
+            batch.end();
+        }
+        for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+            for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                TileMap chunk = chunks[chunkY * chunksX + chunkX];
+                if (chunk != null) {
+                    chunk.renderStatic(camera);
+                }
+            }
+        }
+        batch.begin();
+        for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+            for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                TileMap chunk = chunks[chunkY * chunksX + chunkX];
+                if (chunk != null) {
+                    chunk.renderAnimated(batch, camera);
+                }
+            }
+        }
+        if (!drawing) {
+            batch.end();
+        }
+    }
+
+    // unloads every chunk and releases the static cache
+    @Override
+    public void dispose() {
+        for (TileMap chunk : recentlyUsed.values()) {
+            chunk.dispose();
+        }
+        recentlyUsed.clear();
+        Arrays.fill(chunks, null);
+        Arrays.fill(states, UNLOADED);
+        residentBytes = 0;
+        animationGroups.clear();
+        staticCache.dispose();
+    }
+}
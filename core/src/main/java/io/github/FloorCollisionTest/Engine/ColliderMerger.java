@@ -0,0 +1,143 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/*
+    Build time merging of adjacent solid tiles into bigger collision rectangles (greedy meshing)
+    a platform made of N tiles becomes a single collider, so queries test fewer rectangles
+    and the player can't snag on the seams between two tiles of the same platform
+    the maps merge per chunk and MergedColliders per region, so a platform is still split where
+    a chunk or a region ends, a seam the player walks over like the others
+    rendering is not affected, the tiles are still drawn one by one
+*/
+public final class ColliderMerger {
+
+    private ColliderMerger() {}
+
+    /*
+        merges the solid cells of the map between (fromX, fromY) and (toX, toY), both excluded at the end,
+        into rectangles appended to out; a row run is taken first, then grown upwards while the
+        rows above have the same run of solid cells
+    */
+    public static void merge(TileMap map, int fromX, int fromY, int toX, int toY, ColliderStore out) {
+        fromX = Math.max(fromX, 0);
+        fromY = Math.max(fromY, 0);
+        toX = Math.min(toX, map.getMapWidth());
+        toY = Math.min(toY, map.getMapHeight());
+        int regionWidth = toX - fromX;
+        int regionHeight = toY - fromY;
+        if (regionWidth <= 0 || regionHeight <= 0) {
+            return;
+        }
+
+        float tileWidth = map.getTileWidth();
+        float tileHeight = map.getTileHeight();
+        float originX = map.getOriginX();
+        float originY = map.getOriginY();
+        boolean[] used = new boolean[regionWidth * regionHeight];
+
+        for (int y = fromY; y < toY; y++) {
+            int x = map.firstSolidInRow(y, fromX, toX - 1);
+            while (x >= 0) {
+                if (used[(y - fromY) * regionWidth + (x - fromX)]) {
+                    x = x + 1 < toX ? map.firstSolidInRow(y, x + 1, toX - 1) : -1;
+                    continue;
+                }
+
+                // widest run of free solid cells starting at x
+                int runEnd = x + 1;
+                while (runEnd < toX && map.isSolid(runEnd, y) && !used[(y - fromY) * regionWidth + (runEnd - fromX)]) {
+                    runEnd++;
+                }
+
+                // grow upwards while the whole run is solid and free
+                int top = y + 1;
+                while (top < toY && isFreeRun(map, used, fromX, fromY, regionWidth, x, runEnd, top)) {
+                    top++;
+                }
+
+                for (int row = y; row < top; row++) {
+                    Arrays.fill(used, (row - fromY) * regionWidth + (x - fromX), (row - fromY) * regionWidth + (runEnd - fromX), true);
+                }
+                out.add(originX + x * tileWidth, originY + y * tileHeight, (runEnd - x) * tileWidth, (top - y) * tileHeight);
+
+                x = runEnd < toX ? map.firstSolidInRow(y, runEnd, toX - 1) : -1;
+            }
+        }
+    }
+
+    public static ColliderStore merge(TileMap map) {
+        ColliderStore out = new ColliderStore();
+        merge(map, 0, 0, map.getMapWidth(), map.getMapHeight(), out);
+        return out;
+    }
+
+    /*
+        merges free placed tiles: tiles on the same row with the same height that touch or overlap
+        horizontally are joined, then the resulting strips with the same x and width stacked on top
+        of each other are joined, tiles that don't line up are kept as they are
+    */
+    public static ColliderStore merge(ArrayList<Tile> tiles) {
+        ArrayList<float[]> rects = new ArrayList<>(tiles.size());
+        for (Tile tile : tiles) {
+            rects.add(new float[] { tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight() });
+        }
+
+        // x = 0, y = 1, width = 2, height = 3
+        rects.sort(new Comparator<float[]>() {
+            @Override
+            public int compare(float[] a, float[] b) {
+                int order = Float.compare(a[1], b[1]);
+                if (order == 0) order = Float.compare(a[3], b[3]);
+                if (order == 0) order = Float.compare(a[0], b[0]);
+                return order;
+            }
+        });
+        ArrayList<float[]> strips = new ArrayList<>();
+        for (float[] rect : rects) {
+            float[] last = strips.isEmpty() ? null : strips.get(strips.size() - 1);
+            if (last != null && last[1] == rect[1] && last[3] == rect[3] && rect[0] <= last[0] + last[2]) {
+                last[2] = Math.max(last[0] + last[2], rect[0] + rect[2]) - last[0];
+            } else {
+                strips.add(rect);
+            }
+        }
+
+        strips.sort(new Comparator<float[]>() {
+            @Override
+            public int compare(float[] a, float[] b) {
+                int order = Float.compare(a[0], b[0]);
+                if (order == 0) order = Float.compare(a[2], b[2]);
+                if (order == 0) order = Float.compare(a[1], b[1]);
+                return order;
+            }
+        });
+        ColliderStore out = new ColliderStore(Math.max(strips.size(), 1));
+        float[] current = null;
+        for (float[] strip : strips) {
+            if (current != null && current[0] == strip[0] && current[2] == strip[2] && strip[1] <= current[1] + current[3]) {
+                current[3] = Math.max(current[1] + current[3], strip[1] + strip[3]) - current[1];
+            } else {
+                if (current != null) {
+                    out.add(current[0], current[1], current[2], current[3]);
+                }
+                current = strip;
+            }
+        }
+        if (current != null) {
+            out.add(current[0], current[1], current[2], current[3]);
+        }
+        return out;
+    }
+
+    private static boolean isFreeRun(TileMap map, boolean[] used, int fromX, int fromY, int regionWidth, int startX, int endX, int y) {
+        for (int x = startX; x < endX; x++) {
+            if (!map.isSolid(x, y) || used[(y - fromY) * regionWidth + (x - fromX)]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
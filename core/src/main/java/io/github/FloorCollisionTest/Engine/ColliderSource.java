@@ -0,0 +1,10 @@
+package io.github.FloorCollisionTest.Engine;
+
+/*
+    Anything that can hand out the static colliders around an area
+    implementations append the bounds of every collider touching the area (edges included)
+    to out without clearing it, the result may contain extra colliders but never misses one
+*/
+public interface ColliderSource {
+    void gatherColliders(float x, float y, float width, float height, ColliderStore out);
+}
@@ -0,0 +1,116 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.Arrays;
+
+/*
+    Packed store of axis aligned colliders, filled by the merged colliders, the TileMap chunks
+    and the gathers of the collision queries
+    the bounds are kept in four contiguous float arrays (structure of arrays) so overlap
+    sweeps read memory linearly instead of chasing one Rectangle object per collider
+    Tile objects keep their own bounds, the queries over a list of tiles read them directly
+*/
+public class ColliderStore implements ColliderSource {
+    float[] x;
+    float[] y;
+    float[] width;
+    float[] height;
+    private int size;
+
+    public ColliderStore() {
+        this(64);
+    }
+
+    public ColliderStore(int capacity) {
+        capacity = Math.max(capacity, 1);
+        x = new float[capacity];
+        y = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // returns the index of the new collider
+    public int add(float x, float y, float width, float height) {
+        if (size == this.x.length) {
+            grow(size + (size >> 1) + 1);
+        }
+        this.x[size] = x;
+        this.y[size] = y;
+        this.width[size] = width;
+        this.height[size] = height;
+        return size++;
+    }
+
+    public void set(int index, float x, float y, float width, float height) {
+        checkIndex(index);
+        this.x[index] = x;
+        this.y[index] = y;
+        this.width[index] = width;
+        this.height[index] = height;
+    }
+
+    // removes the collider by moving the last one into its slot
+    public void removeIndex(int index) {
+        checkIndex(index);
+        int last = --size;
+        if (index != last) {
+            x[index] = x[last];
+            y[index] = y[last];
+            width[index] = width[last];
+            height[index] = height[last];
+        }
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    public float getWidth(int index) {
+        return width[index];
+    }
+
+    public float getHeight(int index) {
+        return height[index];
+    }
+
+    // appends every collider touching the area, edges included
+    @Override
+    public void gatherColliders(float areaX, float areaY, float areaWidth, float areaHeight, ColliderStore out) {
+        for (int i = 0; i < size; i++) {
+            if (x[i] <= areaX + areaWidth && x[i] + width[i] >= areaX
+                && y[i] <= areaY + areaHeight && y[i] + height[i] >= areaY) {
+                out.add(x[i], y[i], width[i], height[i]);
+            }
+        }
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > x.length) {
+            grow(capacity);
+        }
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+    }
+}
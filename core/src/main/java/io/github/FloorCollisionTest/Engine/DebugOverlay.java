@@ -0,0 +1,100 @@
+package io.github.FloorCollisionTest.Engine;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+
+/*
+    Debug shapes collected during the frame and drawn together by flush, after the sprite batch ended
+    while disabled every call returns right away, nothing is buffered and the ShapeRenderer
+    is never created, so callers can leave their debug drawing in place
+*/
+public class DebugOverlay implements Disposable {
+    // x, y, width, height and packed color of every rectangle
+    private static final int RECT_STRIDE = 5;
+
+    private boolean enabled;
+    private final FloatArray rects = new FloatArray();
+    private final Color color = new Color();
+    private ShapeRenderer shapeRenderer;
+
+    public DebugOverlay() {
+        this(false);
+    }
+
+    public DebugOverlay(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // the shapes buffered so far are dropped when the overlay is disabled
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            rects.clear();
+        }
+    }
+
+    public void toggle() {
+        setEnabled(!enabled);
+    }
+
+    public void rect(float x, float y, float width, float height, float r, float g, float b, float a) {
+        if (!enabled) {
+            return;
+        }
+        rects.add(x, y, width, height);
+        rects.add(Color.toFloatBits(r, g, b, a));
+    }
+
+    public void rect(Rectangle rectangle, float r, float g, float b, float a) {
+        if (!enabled || rectangle == null) {
+            return;
+        }
+        rect(rectangle.x, rectangle.y, rectangle.width, rectangle.height, r, g, b, a);
+    }
+
+    // number of shapes waiting for the next flush
+    public int size() {
+        return rects.size / RECT_STRIDE;
+    }
+
+    /*
+        draws every buffered shape in one ShapeRenderer pass and empties the buffer,
+        must be called outside batch.begin/end
+    */
+    public void flush(Matrix4 projection) {
+        if (!enabled || rects.size == 0) {
+            rects.clear();
+            return;
+        }
+        if (shapeRenderer == null) {
+            shapeRenderer = new ShapeRenderer();
+        }
+        float[] items = rects.items;
+        shapeRenderer.setProjectionMatrix(projection);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        for (int i = 0; i < rects.size; i += RECT_STRIDE) {
+            Color.abgr8888ToColor(color, items[i + 4]);
+            shapeRenderer.setColor(color);
+            shapeRenderer.rect(items[i], items[i + 1], items[i + 2], items[i + 3]);
+        }
+        shapeRenderer.end();
+        rects.clear();
+    }
+
+    @Override
+    public void dispose() {
+        if (shapeRenderer != null) {
+            shapeRenderer.dispose();
+            shapeRenderer = null;
+        }
+        rects.clear();
+    }
+}
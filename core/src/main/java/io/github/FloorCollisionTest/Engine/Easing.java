@@ -0,0 +1,9 @@
+package io.github.FloorCollisionTest.Engine;
+
+/*
+    Easing curve of an animation, maps the progress t in [0, 1] to the eased progress
+    a curve is only evaluated when it's registered in Easings, frames read the sampled table
+*/
+public interface Easing {
+    float apply(float t);
+}
@@ -0,0 +1,98 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/*
+    Registry of the animation styles used by Tile and Player, keyed by the LINEAR / EASE_* numbers
+    every curve is sampled once into a table of TABLE_SIZE + 1 values when it's registered,
+    resolving a frame then costs a table lookup and a linear interpolation between two samples
+    new styles are added with register, with any number not used yet
+*/
+public final class Easings {
+    public static final int LINEAR = 0;
+    public static final int EASE_IN_OUT = 1;
+    public static final int EASE_IN = 2;
+    public static final int EASE_OUT = 3;
+
+    public static final int TABLE_SIZE = 256;
+
+    // sampled curves indexed by style, null for linear and for styles never registered
+    private static float[][] tables = new float[4][];
+
+    static {
+        register(EASE_IN_OUT, new Easing() {
+            @Override
+            public float apply(float t) {
+                return (float) (-0.5 * (Math.cos(Math.PI * t) - 1));
+            }
+        });
+        register(EASE_IN, new Easing() {
+            @Override
+            public float apply(float t) {
+                return t * t;
+            }
+        });
+        register(EASE_OUT, new Easing() {
+            @Override
+            public float apply(float t) {
+                return 1 - (1 - t) * (1 - t);
+            }
+        });
+    }
+
+    private Easings() {}
+
+    /*
+        samples the curve and binds it to the style, replacing the curve it had before
+        meant to be called while loading, not while frames are being resolved
+    */
+    public static void register(int style, Easing curve) {
+        if (style < 0) {
+            throw new IllegalArgumentException("style must not be negative: " + style);
+        }
+        if (curve == null) {
+            throw new IllegalArgumentException("curve can't be null");
+        }
+        float[] table = new float[TABLE_SIZE + 1];
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            table[i] = curve.apply(i / (float) TABLE_SIZE);
+        }
+        if (style >= tables.length) {
+            tables = Arrays.copyOf(tables, style + 1);
+        }
+        tables[style] = table;
+    }
+
+    public static boolean isRegistered(int style) {
+        return style >= 0 && style < tables.length && tables[style] != null;
+    }
+
+    // eased progress of t, clamped to [0, 1]; linear and unknown styles return t
+    public static float apply(int style, float t) {
+        t = Math.max(0f, Math.min(t, 1f));
+        if (!isRegistered(style)) {
+            return t;
+        }
+        float[] table = tables[style];
+        float position = t * TABLE_SIZE;
+        int index = Math.min((int) position, TABLE_SIZE - 1);
+        float fraction = position - index;
+        return table[index] + (table[index + 1] - table[index]) * fraction;
+    }
+
+    /*
+        frame of the animation after stateTime seconds with the given style
+        linear and unknown styles play the animation time as it is, so looping keeps working;
+        eased styles map the first play of the animation through their curve
+    */
+    public static TextureRegion resolveFrame(Animation<TextureRegion> animation, int style, float stateTime, boolean looping) {
+        if (!isRegistered(style)) {
+            return animation.getKeyFrame(stateTime, looping);
+        }
+        float duration = animation.getAnimationDuration();
+        return animation.getKeyFrame(apply(style, stateTime / duration) * duration, looping);
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.FloorCollisionTest.Engine;
+
+/*
+    Fixed step driver for the simulation
+    the frame delta is accumulated and consumed in whole steps of stepTime, so the physics
+    always runs with the same delta and its cost doesn't grow with the render frame rate
+    typical use every frame:
+
+        timestep.accumulate(delta);
+        while (timestep.step()) {
+            simulate(timestep.getStepTime());
+        }
+        render(timestep.getAlpha());
+*/
+public class FixedTimestep {
+    public static final float DEFAULT_STEP_TIME = 1f / 60f;
+    public static final int DEFAULT_MAX_STEPS_PER_FRAME = 5;
+
+    private final float stepTime;
+    private final int maxStepsPerFrame;
+    private float accumulator;
+    private int stepsThisFrame;
+
+    public FixedTimestep() {
+        this(DEFAULT_STEP_TIME, DEFAULT_MAX_STEPS_PER_FRAME);
+    }
+
+    /*
+        maxStepsPerFrame caps the simulation work done in a single frame,
+        when the machine can't keep up the game slows down instead of stalling
+    */
+    public FixedTimestep(float stepTime, int maxStepsPerFrame) {
+        if (stepTime <= 0) {
+            throw new IllegalArgumentException("stepTime must be positive: " + stepTime);
+        }
+        if (maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("maxStepsPerFrame must be positive: " + maxStepsPerFrame);
+        }
+        this.stepTime = stepTime;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    public void accumulate(float deltaTime) {
+        accumulator += Math.min(Math.max(deltaTime, 0f), stepTime * maxStepsPerFrame);
+        stepsThisFrame = 0;
+    }
+
+    // returns true while a whole step has to be simulated in this frame
+    public boolean step() {
+        if (accumulator < stepTime) {
+            return false;
+        }
+        if (stepsThisFrame >= maxStepsPerFrame) {
+            // the time that couldn't be simulated is dropped, only the fraction is kept for interpolation
+            accumulator %= stepTime;
+            return false;
+        }
+        accumulator -= stepTime;
+        stepsThisFrame++;
+        return true;
+    }
+
+    public float getStepTime() {
+        return stepTime;
+    }
+
+    // fraction of a step left in the accumulator, used to interpolate between the last two states
+    public float getAlpha() {
+        return accumulator / stepTime;
+    }
+
+    public int getStepsThisFrame() {
+        return stepsThisFrame;
+    }
+
+    public void reset() {
+        accumulator = 0f;
+        stepsThisFrame = 0;
+    }
+}
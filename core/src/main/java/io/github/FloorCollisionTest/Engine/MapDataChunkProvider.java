@@ -0,0 +1,67 @@
+package io.github.FloorCollisionTest.Engine;
+
+/*
+    Cuts the chunks out of a map read by TileMapFormat, a memory mapped binary map
+    keeps only the pages of the loaded chunks resident
+*/
+public class MapDataChunkProvider implements ChunkProvider {
+    private final TileMapFormat.MapData data;
+    private final int chunkCells;
+    private final TextureCache textures;
+
+    public MapDataChunkProvider(TileMapFormat.MapData data, int chunkCells, TextureCache textures) {
+        if (chunkCells <= 0) {
+            throw new IllegalArgumentException("chunkCells must be positive: " + chunkCells);
+        }
+        this.data = data;
+        this.chunkCells = chunkCells;
+        this.textures = textures;
+    }
+
+    public MapDataChunkProvider(TileMapFormat.MapData data, TextureCache textures) {
+        this(data, TileMap.CHUNK_SIZE, textures);
+    }
+
+    @Override
+    public int getChunksX() {
+        return (data.width + chunkCells - 1) / chunkCells;
+    }
+
+    @Override
+    public int getChunksY() {
+        return (data.height + chunkCells - 1) / chunkCells;
+    }
+
+    @Override
+    public float getChunkWidth() {
+        return chunkCells * data.tileWidth;
+    }
+
+    @Override
+    public float getChunkHeight() {
+        return chunkCells * data.tileHeight;
+    }
+
+    @Override
+    public TileMap loadChunk(int chunkX, int chunkY, AnimationGroups animationGroups, SpriteCachePool staticCache) {
+        int fromX = chunkX * chunkCells;
+        int fromY = chunkY * chunkCells;
+        int toX = Math.min(fromX + chunkCells, data.width);
+        int toY = Math.min(fromY + chunkCells, data.height);
+        if (isEmpty(fromX, fromY, toX, toY)) {
+            return null;
+        }
+        return new TileMap(data, fromX, fromY, chunkCells, chunkCells, textures, animationGroups, staticCache);
+    }
+
+    private boolean isEmpty(int fromX, int fromY, int toX, int toY) {
+        for (int y = fromY; y < toY; y++) {
+            for (int x = fromX; x < toX; x++) {
+                if (data.getTypeId(x, y) != TileMapFormat.EMPTY) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.ArrayList;
+
+import com.badlogic.gdx.utils.LongMap;
+
+/*
+    Merged colliders of free placed tiles, indexed by region so queries stay local
+    every tile belongs to the square region holding the corner of its hitbox and every region
+    is merged on its own with ColliderMerger, so inserting or removing a tile only merges its
+    region again, the next time a query reaches it
+    a merged rectangle starts inside its region but can stick out of it, a query also visits
+    the regions behind the area up to the farthest a tile reaches from its region
+    a platform crossing the edge of a region stays split there, the player doesn't snag on that
+    seam since side contacts need an overlap in height and a sweep along a floor ignores colliders
+    it only touches on an edge
+    queries can run on many threads at once, like the workers of ActorBatch.stepParallel,
+    insert and remove must not run while a query does
+*/
+public class MergedColliders implements ColliderSource {
+    public static final float DEFAULT_REGION_SIZE = 512f;
+
+    private static class Region {
+        final ArrayList<Tile> tiles = new ArrayList<>();
+        ColliderStore colliders;
+        // written after colliders, so a query seeing it false sees the merged colliders
+        volatile boolean dirty;
+    }
+
+    private final float regionSize;
+    private final LongMap<Region> regions = new LongMap<>();
+    // farthest right and top edge of a tile from the corner of its region
+    private float reachX;
+    private float reachY;
+
+    public MergedColliders() {
+        this(DEFAULT_REGION_SIZE);
+    }
+
+    public MergedColliders(float regionSize) {
+        if (regionSize <= 0) {
+            throw new IllegalArgumentException("regionSize must be positive: " + regionSize);
+        }
+        this.regionSize = regionSize;
+    }
+
+    public void insert(Tile tile) {
+        int regionX = regionOf(tile.getX());
+        int regionY = regionOf(tile.getY());
+        long key = key(regionX, regionY);
+        Region region = regions.get(key);
+        if (region == null) {
+            region = new Region();
+            regions.put(key, region);
+        }
+        region.tiles.add(tile);
+        region.dirty = true;
+        reachX = Math.max(reachX, tile.getX() + tile.getWidth() - regionX * regionSize);
+        reachY = Math.max(reachY, tile.getY() + tile.getHeight() - regionY * regionSize);
+    }
+
+    // the tile must not have been moved since it was inserted
+    public boolean remove(Tile tile) {
+        long key = key(regionOf(tile.getX()), regionOf(tile.getY()));
+        Region region = regions.get(key);
+        if (region == null || !region.tiles.remove(tile)) {
+            return false;
+        }
+        if (region.tiles.isEmpty()) {
+            regions.remove(key);
+        } else {
+            region.dirty = true;
+        }
+        return true;
+    }
+
+    public void clear() {
+        regions.clear();
+        reachX = 0;
+        reachY = 0;
+    }
+
+    // number of merged rectangles, every region changed since the last query is merged again
+    public int size() {
+        int size = 0;
+        for (LongMap.Entry<Region> entry : regions) {
+            size += colliders(entry.value).size();
+        }
+        return size;
+    }
+
+    @Override
+    public void gatherColliders(float x, float y, float width, float height, ColliderStore out) {
+        int minX = regionOf(x - reachX);
+        int minY = regionOf(y - reachY);
+        int maxX = regionOf(x + width);
+        int maxY = regionOf(y + height);
+        for (int regionX = minX; regionX <= maxX; regionX++) {
+            for (int regionY = minY; regionY <= maxY; regionY++) {
+                Region region = regions.get(key(regionX, regionY));
+                if (region != null) {
+                    colliders(region).gatherColliders(x, y, width, height, out);
+                }
+            }
+        }
+    }
+
+    private static ColliderStore colliders(Region region) {
+        if (region.dirty) {
+            // the first query reaching a changed region merges it, the others wait for it
+            synchronized (region) {
+                if (region.dirty) {
+                    region.colliders = ColliderMerger.merge(region.tiles);
+                    region.dirty = false;
+                }
+            }
+        }
+        return region.colliders;
+    }
+
+    private int regionOf(float coordinate) {
+        return (int) Math.floor(coordinate / regionSize);
+    }
+
+    private static long key(int regionX, int regionY) {
+        return ((long) regionX << 32) | (regionY & 0xffffffffL);
+    }
+}
@@ -5,10 +5,10 @@ import java.util.ArrayList;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
@@ -18,6 +18,8 @@ public class Player {
     // fondamental variables for the player
     private final Rectangle[] playerHitboxes;
     private float x,y;
+    // position at the start of the last simulation step, used for render interpolation
+    private float previousX, previousY;
     
     // fondamental variables for the player movement
     private float movementSpeed = 50f;
@@ -31,8 +33,8 @@ public class Player {
     private float gravity = 100f;
 
     // animation related variables
-    private Animation<Texture> animation;
-    private Texture currentFrame;
+    private Animation<TextureRegion> animation;
+    private TextureRegion currentFrame;
     
     // temporary variables for the player movement
     private float fallSpeed=0f;
@@ -44,6 +46,13 @@ public class Player {
     private boolean isFalling = false;
     private boolean isDashing = false; 
     private boolean hasDashed = false;
+
+    // reused buffers for the tiles returned by the spatial grid and the colliders gathered by the queries
+    private final ArrayList<Tile> nearbyTiles = new ArrayList<>();
+    private final ColliderStore nearbyColliders = new ColliderStore(16);
+    // colliders the current step can reach, gathered once per step by updatePosition
+    private final ColliderStore stepColliders = new ColliderStore(16);
+    private final SweptAABB.Hit sweepHit = new SweptAABB.Hit();
     
     // collision related constants
     public static final int COLLIDING_TOP = 1;
@@ -52,10 +61,10 @@ public class Player {
     public static final int COLLIDING_RIGHT = 3;
 
     // animation related constants
-    public static final int LINEAR = 0;
-    public static final int EASE_IN_OUT = 1;
-    public static final int EASE_IN = 2;
-    public static final int EASE_OUT = 3;
+    public static final int LINEAR = Easings.LINEAR;
+    public static final int EASE_IN_OUT = Easings.EASE_IN_OUT;
+    public static final int EASE_IN = Easings.EASE_IN;
+    public static final int EASE_OUT = Easings.EASE_OUT;
 
     // camera related constants
     public static final int FOLLOW = 0;
@@ -68,9 +77,16 @@ public class Player {
     public static final int SHAKE = 7;
 
     public Player(Rectangle hitbox,Texture[] textures,float frameDuration) {
+        this(hitbox, SpriteSheet.toRegions(textures), frameDuration);
+    }
+
+    // same as above with frames that can share the same texture
+    public Player(Rectangle hitbox,TextureRegion[] textures,float frameDuration) {
         this.playerHitboxes = generatePlayerHitboxes(hitbox);
         this.x = hitbox.x;
         this.y = hitbox.y;
+        this.previousX = hitbox.x;
+        this.previousY = hitbox.y;
         this.animation = new Animation<>(frameDuration, textures);        
     }
 
@@ -116,49 +132,30 @@ public class Player {
 
         return playerHitboxes;
     }
-    // utility method to generate a texture from an atlas
-    public static Texture[] generateTextureFromAtlas(String path, int frameWidth, int frameHeight,int padding) {
+    /*
+        utility method to generate the frames of an atlas
+        the sheet is uploaded once and every frame is a region of that texture
+    */
+    public static TextureRegion[] generateTextureFromAtlas(String path, int frameWidth, int frameHeight,int padding) {
         Texture sheetTexture = new Texture(Gdx.files.internal(path));
+        return SpriteSheet.sliceRegions(sheetTexture, frameWidth, frameHeight, padding);
+    }
 
-        Pixmap fullPixmap = Player.getPixmapFromTexture(sheetTexture);
-
-        int columns = fullPixmap.getWidth() / frameWidth;
-        int rows = fullPixmap.getHeight() / frameHeight;
-        int totalFrames = columns * rows;
-
-        Texture[] frames = new Texture[totalFrames];
-
-        int index = 0;
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < columns; col++) {
-                Pixmap framePixmap = new Pixmap(frameWidth, frameHeight, fullPixmap.getFormat());
-                framePixmap.drawPixmap(
-                    fullPixmap,
-                    0, 0,
-                    col * (frameWidth + padding), row * (frameHeight + padding),
-                    frameWidth, frameHeight
-                );
-                frames[index++] = new Texture(framePixmap);
-                framePixmap.dispose();
-            }
-        }
-
-        fullPixmap.dispose();
-        sheetTexture.dispose(); 
+    public Rectangle getPlayerHitbox(){
+        return getPlayerHitbox(new Rectangle());
+    }
 
-        return frames;
+    // writes the full player hitbox into out instead of allocating a new Rectangle
+    public Rectangle getPlayerHitbox(Rectangle out){
+        return out.set(playerHitboxes[COLLIDING_BOTTOM].x, playerHitboxes[COLLIDING_BOTTOM].y, getWidth(), getHeight());
     }
 
-    /*
-    Utility method to extract a Pixmap from a Texture.
-    */
-    private static Pixmap getPixmapFromTexture(Texture texture) {
-        texture.getTextureData().prepare();
-        return texture.getTextureData().consumePixmap();
+    public float getWidth() {
+        return playerHitboxes[COLLIDING_BOTTOM].width;
     }
 
-    public Rectangle getPlayerHitbox(){
-        return new Rectangle(playerHitboxes[0].x, playerHitboxes[0].y, playerHitboxes[0].width, playerHitboxes[2].height);
+    public float getHeight() {
+        return playerHitboxes[COLLIDING_LEFT].height;
     }
 
     public Rectangle getPlayerHitbox(int typeOfCollision){
@@ -197,6 +194,23 @@ public class Player {
         return y;
     }
 
+    /*
+        stores the current position as the start of a simulation step
+        call it once before every fixed step so renderSprite can interpolate
+    */
+    public void beginStep() {
+        previousX = x;
+        previousY = y;
+    }
+
+    public float getInterpolatedX(float alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    public float getInterpolatedY(float alpha) {
+        return previousY + (y - previousY) * alpha;
+    }
+
     public void setDashDistance(float dashDistance) {
         this.dashDistance = dashDistance;
     }
@@ -237,15 +251,15 @@ public class Player {
         return this.animation.getAnimationDuration();
     }
 
-    public void setAnimation(Animation<Texture> animation) {
+    public void setAnimation(Animation<TextureRegion> animation) {
         this.animation = animation;
     }
 
-    public Animation<Texture> getAnimation() {
+    public Animation<TextureRegion> getAnimation() {
         return this.animation;
     }
 
-    public Texture getCurrentFrame() {
+    public TextureRegion getCurrentFrame() {
         return this.currentFrame;
     }
     
@@ -264,38 +278,24 @@ public class Player {
         1 = easeInOut
         2 = easeIn
         3 = easeOut
-        the default is linear
+        the default is linear, other styles can be registered in Easings
         the animation is not looping by default, but you can set it to loop by passing true to the method
     */
     public void renderSprite(SpriteBatch batch, int AnimationStyle,boolean looping) {
-        float duration = animation.getAnimationDuration();
-        float t = Math.min(stateTime / duration, 1f); 
-    
-        switch (AnimationStyle) {
-            case LINEAR: 
-                this.currentFrame = animation.getKeyFrame(stateTime, looping);
-                break;
-            case EASE_IN_OUT:
-                float easedInOutT = (float)(-0.5f * (Math.cos(Math.PI * t) - 1));
-                float easedInOutTime = easedInOutT * duration;
-                this.currentFrame = animation.getKeyFrame(easedInOutTime, looping);
-                break;    
-            case EASE_IN: 
-                float easeInT = t * t;
-                float easeInTime = easeInT * duration;
-                this.currentFrame = animation.getKeyFrame(easeInTime, looping);
-                break;
-            case EASE_OUT: 
-                float easeOutT = 1 - (1 - t) * (1 - t);
-                float easeOutTime = easeOutT * duration;
-                this.currentFrame = animation.getKeyFrame(easeOutTime, looping);
-                break;
-            default:
-                this.currentFrame = animation.getKeyFrame(stateTime, looping);
-                break;
-        }
-    
-        batch.draw(this.currentFrame,x,y,getPlayerHitbox().width, getPlayerHitbox().height);
+        renderSpriteAt(batch, AnimationStyle, looping, x, y);
+    }
+
+    /*
+        same as above but the sprite is drawn between the position before and after the
+        last simulation step, alpha is the fraction returned by FixedTimestep.getAlpha()
+    */
+    public void renderSprite(SpriteBatch batch, int AnimationStyle,boolean looping, float alpha) {
+        renderSpriteAt(batch, AnimationStyle, looping, getInterpolatedX(alpha), getInterpolatedY(alpha));
+    }
+
+    private void renderSpriteAt(SpriteBatch batch, int AnimationStyle,boolean looping, float drawX, float drawY) {
+        this.currentFrame = Easings.resolveFrame(animation, AnimationStyle, stateTime, looping);
+        batch.draw(this.currentFrame,drawX,drawY,getWidth(), getHeight());
     }
 
     /*
@@ -311,96 +311,337 @@ public class Player {
         return false;
     }
 
+    /*
+        the single side queries below test the tiles with primitive coordinates,
+        only the returned hitbox is allocated
+    */
     public Rectangle getGroundHitbox(ArrayList<Tile> tiles){
-        ArrayList<Tile> tilesUnderPlayer = new ArrayList<>();
-
-        for(Tile tile : tiles){
-            if(tile.getY() <= getPlayerHitbox().y && tile.getY()+tile.getTileHitbox().height>=getPlayerHitbox().y){
-                tilesUnderPlayer.add(tile);
-            }
-        }
-
-        Rectangle playerHitbox = getPlayerHitbox(COLLIDING_BOTTOM);
-        for(Tile tile : tilesUnderPlayer){
-            Rectangle tileHitbox = tile.getTileHitbox();
-            Rectangle checker = new Rectangle(tileHitbox.x,playerHitbox.y,tileHitbox.width,tileHitbox.height);
-            if(playerHitbox.overlaps(checker)){
-                return tileHitbox;
+        Rectangle bottomHitbox = playerHitboxes[COLLIDING_BOTTOM];
+        float py = bottomHitbox.y;
+
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile tile = tiles.get(i);
+            if(tile.getY() <= py && tile.getY()+tile.getHeight()>=py && tile.getHeight() > 0
+                && bottomHitbox.x < tile.getX() + tile.getWidth() && bottomHitbox.x + bottomHitbox.width > tile.getX()){
+                return tile.getTileHitbox();
             }
         }
         return null;   
     }
 
     public Rectangle getRightHitbox(ArrayList<Tile> tiles) {
-        Rectangle playerHitbox = getPlayerHitbox();
-        Rectangle rightChecker = new Rectangle(
-            playerHitbox.x + playerHitbox.width, 
-            playerHitbox.y,
-            1, 
-            playerHitbox.height
-        );
-    
-        Rectangle closestTileHitbox = null;
+        float px = playerHitboxes[COLLIDING_BOTTOM].x;
+        float py = playerHitboxes[COLLIDING_BOTTOM].y;
+        float rightEdge = px + getWidth();
+
+        Tile closestTile = null;
         float closestDistance = Float.MAX_VALUE;
     
-        for (Tile tile : tiles) {
-            Rectangle tileHitbox = tile.getTileHitbox();
-            if (rightChecker.overlaps(tileHitbox)) {
-                float distance = tileHitbox.x - (playerHitbox.x + playerHitbox.width);
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile tile = tiles.get(i);
+            // 1px probe on the right side of the player
+            if (rightEdge < tile.getX() + tile.getWidth() && rightEdge + 1 > tile.getX()
+                && py < tile.getY() + tile.getHeight() && py + getHeight() > tile.getY()) {
+                float distance = tile.getX() - rightEdge;
                 if (distance < closestDistance) {
                     closestDistance = distance;
-                    closestTileHitbox = tileHitbox;
+                    closestTile = tile;
                 }
             }
         }
     
-        return closestTileHitbox;
+        return closestTile == null ? null : closestTile.getTileHitbox();
     }
 
     public Rectangle getLeftHitbox(ArrayList<Tile> tiles) {
-        Rectangle playerHitbox = getPlayerHitbox();
-        Rectangle leftChecker = new Rectangle(
-            playerHitbox.x - 1,
-            playerHitbox.y,
-            1, 
-            playerHitbox.height
-        );
-    
-        Rectangle closestTileHitbox = null;
+        float px = playerHitboxes[COLLIDING_BOTTOM].x;
+        float py = playerHitboxes[COLLIDING_BOTTOM].y;
+
+        Tile closestTile = null;
         float closestDistance = Float.MAX_VALUE;
     
-        for (Tile tile : tiles) {
-            Rectangle tileHitbox = tile.getTileHitbox();
-            if (leftChecker.overlaps(tileHitbox)) {
-                float distance = playerHitbox.x - (tileHitbox.x + tileHitbox.width);
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile tile = tiles.get(i);
+            // 1px probe on the left side of the player
+            if (px - 1 < tile.getX() + tile.getWidth() && px > tile.getX()
+                && py < tile.getY() + tile.getHeight() && py + getHeight() > tile.getY()) {
+                float distance = px - (tile.getX() + tile.getWidth());
                 if (distance < closestDistance) {
                     closestDistance = distance;
-                    closestTileHitbox = tileHitbox;
+                    closestTile = tile;
                 }
             }
         }
     
-        return closestTileHitbox;
+        return closestTile == null ? null : closestTile.getTileHitbox();
     }
 
     public Rectangle getTopHitbox(ArrayList<Tile> tiles){
-        ArrayList<Tile> tilesAbovePlayer = new ArrayList<>();
+        float px = playerHitboxes[COLLIDING_BOTTOM].x;
+        float py = playerHitboxes[COLLIDING_BOTTOM].y;
+
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile tile = tiles.get(i);
+            if(tile.getY() >= py && tile.getY()<=py+getHeight() && tile.getHeight() > 0
+                && px < tile.getX() + tile.getWidth() && px + getWidth() > tile.getX()){
+                return tile.getTileHitbox();
+            }
+        }
+        return null;   
+    }
+
+    /*
+        same queries as above but only the tiles in the grid cells around the player are tested
+    */
+    public Rectangle getGroundHitbox(SpatialHashGrid grid) {
+        return getGroundHitbox(queryNearbyTiles(grid));
+    }
 
-        for(Tile tile : tiles){
-            if(tile.getY() >= getPlayerHitbox().y && tile.getY()<=getPlayerHitbox().y+getPlayerHitbox().height){
-                tilesAbovePlayer.add(tile);
+    public Rectangle getTopHitbox(SpatialHashGrid grid) {
+        return getTopHitbox(queryNearbyTiles(grid));
+    }
+
+    public Rectangle getLeftHitbox(SpatialHashGrid grid) {
+        return getLeftHitbox(queryNearbyTiles(grid));
+    }
+
+    public Rectangle getRightHitbox(SpatialHashGrid grid) {
+        return getRightHitbox(queryNearbyTiles(grid));
+    }
+
+    /*
+        single pass version of the four queries above: every tile is visited once and
+        the ground, top, left and right contacts are written into out, which is returned
+        the rules for each side are the same as getGroundHitbox, getTopHitbox, getLeftHitbox and getRightHitbox
+    */
+    public PlayerContacts queryContacts(ArrayList<Tile> tiles, PlayerContacts out) {
+        out.clear();
+
+        Rectangle bottomHitbox = playerHitboxes[COLLIDING_BOTTOM];
+        float px = bottomHitbox.x;
+        float py = bottomHitbox.y;
+        float pw = bottomHitbox.width;
+        float ph = playerHitboxes[COLLIDING_LEFT].height;
+
+        float closestLeft = Float.MAX_VALUE;
+        float closestRight = Float.MAX_VALUE;
+
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile tile = tiles.get(i);
+            float tx = tile.getX();
+            float ty = tile.getY();
+            float tw = tile.getWidth();
+            float th = tile.getHeight();
+
+            boolean overlapsX = px < tx + tw && px + pw > tx && th > 0;
+            boolean overlapsY = py < ty + th && py + ph > ty;
+
+            // ground and top keep the first matching tile like the single queries
+            if (!out.hasGround() && overlapsX && ty <= py && ty + th >= py) {
+                out.setGround(tx, ty, tw, th);
+            }
+            if (!out.hasTop() && overlapsX && ty >= py && ty <= py + ph) {
+                out.setTop(tx, ty, tw, th);
+            }
+
+            // left and right keep the closest tile touched by the 1px side probes
+            if (overlapsY && px - 1 < tx + tw && px > tx) {
+                float distance = px - (tx + tw);
+                if (distance < closestLeft) {
+                    closestLeft = distance;
+                    out.setLeft(tx, ty, tw, th);
+                }
+            }
+            if (overlapsY && px + pw < tx + tw && px + pw + 1 > tx) {
+                float distance = tx - (px + pw);
+                if (distance < closestRight) {
+                    closestRight = distance;
+                    out.setRight(tx, ty, tw, th);
+                }
             }
         }
+        return out;
+    }
 
-        Rectangle playerHitbox = getPlayerHitbox();
-        for(Tile tile : tilesAbovePlayer){
-            Rectangle tileHitbox = tile.getTileHitbox();
-            Rectangle checker = new Rectangle(tileHitbox.x,playerHitbox.y,tileHitbox.width,tileHitbox.height);
-            if(playerHitbox.overlaps(checker)){
-                return tileHitbox;
+    /*
+        same query over the arrays of a ColliderStore, as filled by the merged, grid and TileMap sources
+        the loop only reads primitives so it stays cheap even when sweeping a whole level
+    */
+    public PlayerContacts queryContacts(ColliderStore colliders, PlayerContacts out) {
+        out.clear();
+
+        Rectangle bottomHitbox = playerHitboxes[COLLIDING_BOTTOM];
+        float px = bottomHitbox.x;
+        float py = bottomHitbox.y;
+        float pw = bottomHitbox.width;
+        float ph = playerHitboxes[COLLIDING_LEFT].height;
+
+        float[] xs = colliders.x;
+        float[] ys = colliders.y;
+        float[] widths = colliders.width;
+        float[] heights = colliders.height;
+        int count = colliders.size();
+
+        int ground = -1;
+        int top = -1;
+        int left = -1;
+        int right = -1;
+        float closestLeft = Float.MAX_VALUE;
+        float closestRight = Float.MAX_VALUE;
+
+        for (int i = 0; i < count; i++) {
+            float tx = xs[i];
+            float ty = ys[i];
+            float tw = widths[i];
+            float th = heights[i];
+
+            boolean overlapsX = px < tx + tw & px + pw > tx & th > 0;
+            boolean overlapsY = py < ty + th & py + ph > ty;
+
+            // ground and top keep the first matching collider like the single queries
+            if (ground < 0 && overlapsX & ty <= py & ty + th >= py) {
+                ground = i;
+            }
+            if (top < 0 && overlapsX & ty >= py & ty <= py + ph) {
+                top = i;
+            }
+
+            // left and right keep the closest collider touched by the 1px side probes
+            float leftDistance = px - (tx + tw);
+            if (overlapsY & px - 1 < tx + tw & px > tx & leftDistance < closestLeft) {
+                closestLeft = leftDistance;
+                left = i;
+            }
+            float rightDistance = tx - (px + pw);
+            if (overlapsY & px + pw < tx + tw & px + pw + 1 > tx & rightDistance < closestRight) {
+                closestRight = rightDistance;
+                right = i;
             }
         }
-        return null;   
+
+        if (ground >= 0) {
+            out.setGround(xs[ground], ys[ground], widths[ground], heights[ground]);
+        }
+        if (top >= 0) {
+            out.setTop(xs[top], ys[top], widths[top], heights[top]);
+        }
+        if (left >= 0) {
+            out.setLeft(xs[left], ys[left], widths[left], heights[left]);
+        }
+        if (right >= 0) {
+            out.setRight(xs[right], ys[right], widths[right], heights[right]);
+        }
+        return out;
+    }
+
+    // gathers the colliders around the player from any source (grid, store, ...) and runs the packed query
+    public PlayerContacts queryContacts(ColliderSource colliders, PlayerContacts out) {
+        Rectangle bottomHitbox = playerHitboxes[COLLIDING_BOTTOM];
+        nearbyColliders.clear();
+        colliders.gatherColliders(bottomHitbox.x - 1, bottomHitbox.y, getWidth() + 2, getHeight(), nearbyColliders);
+        return queryContacts(nearbyColliders, out);
+    }
+
+    /*
+        same contacts resolved on a grid aligned TileMap by reading the solidity bits of
+        the cells around the player, the cost doesn't depend on the size of the map
+    */
+    public PlayerContacts queryContacts(TileMap map, PlayerContacts out) {
+        out.clear();
+
+        float tw = map.getTileWidth();
+        float th = map.getTileHeight();
+        // the cells are found in map coordinates, the contacts are reported in world coordinates
+        float ox = map.getOriginX();
+        float oy = map.getOriginY();
+        float px = playerHitboxes[COLLIDING_BOTTOM].x - ox;
+        float py = playerHitboxes[COLLIDING_BOTTOM].y - oy;
+        float pw = getWidth();
+        float ph = getHeight();
+
+        // columns overlapping the player and rows overlapping its body
+        int firstColumn = (int) Math.floor(px / tw);
+        int lastColumn = (int) Math.ceil((px + pw) / tw) - 1;
+        int firstRow = (int) Math.floor(py / th);
+        int lastRow = (int) Math.ceil((py + ph) / th) - 1;
+
+        // ground: the cell the feet are standing on, or sunk into
+        int groundRow = firstRow;
+        if (groundRow * th == py) {
+            groundRow--;
+        }
+        for (int row = groundRow; row <= firstRow && !out.hasGround(); row++) {
+            int column = map.firstSolidInRow(row, firstColumn, lastColumn);
+            if (column >= 0) {
+                out.setGround(ox + column * tw, oy + row * th, tw, th);
+            }
+        }
+
+        // top: the lowest cell starting inside the player body
+        int topRow = (int) Math.ceil(py / th);
+        int topLastRow = (int) Math.floor((py + ph) / th);
+        for (int row = topRow; row <= topLastRow && !out.hasTop(); row++) {
+            int column = map.firstSolidInRow(row, firstColumn, lastColumn);
+            if (column >= 0) {
+                out.setTop(ox + column * tw, oy + row * th, tw, th);
+            }
+        }
+
+        // left: the closest column touched by the 1px probe on the left side
+        for (int column = (int) Math.ceil(px / tw) - 1; column >= (int) Math.floor((px - 1) / tw) && !out.hasLeft(); column--) {
+            if ((column + 1) * tw <= px - 1) {
+                break;
+            }
+            for (int row = firstRow; row <= lastRow; row++) {
+                if (map.isSolid(column, row)) {
+                    out.setLeft(ox + column * tw, oy + row * th, tw, th);
+                    break;
+                }
+            }
+        }
+
+        // right: the closest column touched by the 1px probe on the right side
+        for (int column = (int) Math.floor((px + pw) / tw); column * tw < px + pw + 1 && !out.hasRight(); column++) {
+            if ((column + 1) * tw <= px + pw) {
+                continue;
+            }
+            for (int row = firstRow; row <= lastRow; row++) {
+                if (map.isSolid(column, row)) {
+                    out.setRight(ox + column * tw, oy + row * th, tw, th);
+                    break;
+                }
+            }
+        }
+        return out;
+    }
+
+    // the area covers the player plus the 1px side probes used by the left and right queries
+    private ArrayList<Tile> queryNearbyTiles(SpatialHashGrid grid) {
+        Rectangle bottomHitbox = playerHitboxes[COLLIDING_BOTTOM];
+        nearbyTiles.clear();
+        grid.query(bottomHitbox.x - 1, bottomHitbox.y, getWidth() + 2, getHeight(), nearbyTiles);
+        return nearbyTiles;
+    }
+
+    /*
+        narrow phase between two actors: returns a mask with the bit (1 << COLLIDING_*) set
+        for every side hitbox of this player overlapping the full hitbox of the other one
+    */
+    public int getContactSides(Player other) {
+        Rectangle otherBottom = other.playerHitboxes[COLLIDING_BOTTOM];
+        float ox = otherBottom.x;
+        float oy = otherBottom.y;
+        float ow = other.getWidth();
+        float oh = other.getHeight();
+
+        int sides = 0;
+        for (int side = 0; side < playerHitboxes.length; side++) {
+            Rectangle hitbox = playerHitboxes[side];
+            if (hitbox.x < ox + ow && hitbox.x + hitbox.width > ox && hitbox.y < oy + oh && hitbox.y + hitbox.height > oy) {
+                sides |= 1 << side;
+            }
+        }
+        return sides;
     }
 
     /*
@@ -418,23 +659,53 @@ public class Player {
         this method should be called every frame to keep the hitboxes in sync with the player position
     */
     public void updateHitbox() {
-        playerHitboxes[COLLIDING_TOP].setPosition(x, y+getPlayerHitbox().height);
+        playerHitboxes[COLLIDING_TOP].setPosition(x, y+getHeight());
         
         playerHitboxes[COLLIDING_BOTTOM].setPosition(x, y);
         
         playerHitboxes[COLLIDING_LEFT].setPosition(x , y+4);
     
-        playerHitboxes[COLLIDING_RIGHT].setPosition(x + getPlayerHitbox().width, y+4);
+        playerHitboxes[COLLIDING_RIGHT].setPosition(x + getWidth(), y+4);
     }
 
     public void updatePosition(float deltaTime, Rectangle groundHitbox, Rectangle topHitbox,Rectangle leftHitbox, Rectangle rightHitbox) {
-        updateDash(deltaTime);
+        updatePosition(deltaTime, groundHitbox, topHitbox, leftHitbox, rightHitbox, null);
+    }
+
+    /*
+        with a collider source the dash, falling and jumping motion is swept against it,
+        so the player stops on the first collider along the path whatever the deltaTime is
+        the colliders the step can reach are gathered once, the motion is swept against them and
+        contacts is filled again with the contacts of the new position: the input and the debug
+        drawing of the step read it, and the next step starts from it, no other query is needed
+    */
+    public void updatePosition(float deltaTime, PlayerContacts contacts, ColliderSource colliders) {
+        if (colliders == null) {
+            updatePosition(deltaTime, contacts);
+            return;
+        }
+        gatherStepColliders(deltaTime, colliders);
+        updatePosition(deltaTime, contacts.getGround(), contacts.getTop(), contacts.getLeft(), contacts.getRight(), stepColliders);
+        queryContacts(stepColliders, contacts);
+    }
+
+    // the area of the dash, the fall or the jump of this step, plus the 1px side probes
+    private void gatherStepColliders(float deltaTime, ColliderSource colliders) {
+        float reachX = isDashing ? Math.abs(dashDistance / dashDuration * deltaTime) : 0f;
+        float reachDown = Math.max(fallSpeed + gravity * deltaTime, 0f) * deltaTime;
+        float reachUp = isJumping ? Math.max(jumpSpeed, 0f) * deltaTime : 0f;
+        stepColliders.clear();
+        colliders.gatherColliders(x - reachX - 1, y - reachDown, getWidth() + 2 * reachX + 2, getHeight() + reachDown + reachUp, stepColliders);
+    }
+
+    private void updatePosition(float deltaTime, Rectangle groundHitbox, Rectangle topHitbox,Rectangle leftHitbox, Rectangle rightHitbox, ColliderSource colliders) {
+        updateDash(deltaTime, colliders);
         if (isDashing) return;
     
         updateCooldown(deltaTime);
         bonkOnCeiling(topHitbox);
-        handleFalling(deltaTime, groundHitbox);
-        handleJumping(deltaTime);
+        handleFalling(deltaTime, groundHitbox, colliders);
+        handleJumping(deltaTime, colliders);
 
 
         updateHitbox();
@@ -442,10 +713,15 @@ public class Player {
         updateSprite(deltaTime);
     }
 
-    private void updateDash(float deltaTime) {
+    // same as above reading the contacts from a single queryContacts pass
+    public void updatePosition(float deltaTime, PlayerContacts contacts) {
+        updatePosition(deltaTime, contacts.getGround(), contacts.getTop(), contacts.getLeft(), contacts.getRight());
+    }
+
+    private void updateDash(float deltaTime, ColliderSource colliders) {
         if (isDashing) {
             float dashStep = (dashDistance / dashDuration) * deltaTime; 
-            x += dashStep * dashDirection; 
+            move(dashStep * dashDirection, 0f, colliders); 
             dashTimeRemaining -= deltaTime;
     
             if (dashTimeRemaining <= 0) {
@@ -467,21 +743,29 @@ public class Player {
         }
     }
 
-    private void handleFalling(float deltaTime, Rectangle groundHitbox) {
+    private void handleFalling(float deltaTime, Rectangle groundHitbox, ColliderSource colliders) {
         if (!isJumping && (groundHitbox == null || !isColliding(groundHitbox, COLLIDING_BOTTOM))) {
             fallSpeed += gravity * deltaTime;
-            y -= fallSpeed * deltaTime;
             isFalling = true;
+            if (move(0f, -fallSpeed * deltaTime, colliders) && sweepHit.normalY > 0) {
+                land();
+            }
         } else if (!isJumping) {
-            fallSpeed = 0f;
-            isFalling = false;
-            hasDashed = false; 
+            land();
         }
     }
 
-    private void handleJumping(float deltaTime) {
+    private void land() {
+        fallSpeed = 0f;
+        isFalling = false;
+        hasDashed = false; 
+    }
+
+    private void handleJumping(float deltaTime, ColliderSource colliders) {
         if (isJumping) {
-            y += jumpSpeed * deltaTime;
+            if (move(0f, jumpSpeed * deltaTime, colliders) && sweepHit.normalY < 0) {
+                jumpSpeed = 0f;
+            }
             jumpSpeed -= gravity * deltaTime;
     
             if (jumpSpeed <= 0) {
@@ -491,6 +775,42 @@ public class Player {
         }
     }
 
+    /*
+        moves the player by dx, dy; without a collider source the move is applied as is,
+        otherwise it is swept and the player is snapped against the first collider hit
+        returns true when the motion was stopped, sweepHit holds the hit normal
+    */
+    private boolean move(float dx, float dy, ColliderSource colliders) {
+        if (colliders == null) {
+            x += dx;
+            y += dy;
+            return false;
+        }
+        float time = SweptAABB.sweep(x, y, getWidth(), getHeight(), dx, dy, colliders, nearbyColliders, sweepHit);
+        if (!sweepHit.hit) {
+            x += dx;
+            y += dy;
+            return false;
+        }
+
+        // snapping on the hit surface avoids rounding errors leaving the player inside the collider
+        int hit = sweepHit.index;
+        if (sweepHit.normalY > 0) {
+            x += dx * time;
+            y = nearbyColliders.getY(hit) + nearbyColliders.getHeight(hit);
+        } else if (sweepHit.normalY < 0) {
+            x += dx * time;
+            y = nearbyColliders.getY(hit) - getHeight();
+        } else if (sweepHit.normalX > 0) {
+            x = nearbyColliders.getX(hit) + nearbyColliders.getWidth(hit);
+            y += dy * time;
+        } else {
+            x = nearbyColliders.getX(hit) - getWidth();
+            y += dy * time;
+        }
+        return true;
+    }
+
     private void updateCooldown(float deltaTime) {
         if (timeSinceLastDash < dashCooldown) {
             timeSinceLastDash += deltaTime;
@@ -505,7 +825,7 @@ public class Player {
             updateHitbox(); 
         }
         if (topHitbox!=null && isColliding(topHitbox, COLLIDING_TOP)) {
-            y = topHitbox.y - getPlayerHitbox().height;
+            y = topHitbox.y - getHeight();
             jumpSpeed = 0f; 
             isJumping = false;
             isFalling = true;
@@ -516,7 +836,7 @@ public class Player {
             updateHitbox(); 
         }
         if (rightHitbox!=null && isColliding(rightHitbox, COLLIDING_RIGHT)) {
-            x = rightHitbox.x - getPlayerHitbox().width;
+            x = rightHitbox.x - getWidth();
             updateHitbox(); 
         }
     }
@@ -525,33 +845,46 @@ public class Player {
         camera related player methods that defines some basic camera movements
     */
     public void cameraSetup(OrthographicCamera camera,int typeOfCamera){
+        cameraSetupAt(camera, typeOfCamera, x, y);
+    }
+
+    /*
+        same as above following the position the sprite is drawn at, alpha is the
+        fraction returned by FixedTimestep.getAlpha(), so the camera doesn't jitter
+        against the interpolated sprite when the frame rate is not a multiple of the step rate
+    */
+    public void cameraSetup(OrthographicCamera camera,int typeOfCamera, float alpha){
+        cameraSetupAt(camera, typeOfCamera, getInterpolatedX(alpha), getInterpolatedY(alpha));
+    }
+
+    private void cameraSetupAt(OrthographicCamera camera,int typeOfCamera, float followX, float followY){
         float lerp = 0.1f; 
         switch (typeOfCamera) {
             case FOLLOW:
-                camera.position.x = x + getPlayerHitbox().width / 2;
-                camera.position.y = y + getPlayerHitbox().height / 2;
+                camera.position.x = followX + getWidth() / 2;
+                camera.position.y = followY + getHeight() / 2;
                 break;
             case FOLLOW_NO_Y:
-                camera.position.x = x + getPlayerHitbox().width / 2;
+                camera.position.x = followX + getWidth() / 2;
                 break;
             case FOLLOW_AS_OUT_OF_SCREEN:
-                if(x < camera.position.x - camera.viewportWidth / 2) {
-                    camera.position.x = x + getPlayerHitbox().width / 2;
-                } else if(x > camera.position.x + camera.viewportWidth / 2) {
-                    camera.position.x = x - getPlayerHitbox().width / 2;
+                if(followX < camera.position.x - camera.viewportWidth / 2) {
+                    camera.position.x = followX + getWidth() / 2;
+                } else if(followX > camera.position.x + camera.viewportWidth / 2) {
+                    camera.position.x = followX - getWidth() / 2;
                 }
-                if(y < camera.position.y - camera.viewportHeight / 2) {
-                    camera.position.y = y + getPlayerHitbox().height / 2;
-                } else if(y > camera.position.y + camera.viewportHeight / 2) {
-                    camera.position.y = y - getPlayerHitbox().height / 2;
+                if(followY < camera.position.y - camera.viewportHeight / 2) {
+                    camera.position.y = followY + getHeight() / 2;
+                } else if(followY > camera.position.y + camera.viewportHeight / 2) {
+                    camera.position.y = followY - getHeight() / 2;
                 }
                 break;
             case FOLLOW_SMOOTH:
-                camera.position.x += (x + getPlayerHitbox().width / 2 - camera.position.x) * lerp;
-                camera.position.y += (y + getPlayerHitbox().height / 2 - camera.position.y) * lerp;
+                camera.position.x += (followX + getWidth() / 2 - camera.position.x) * lerp;
+                camera.position.y += (followY + getHeight() / 2 - camera.position.y) * lerp;
                 break;
             case FOLLOW_SMOOTH_NO_Y:
-                camera.position.x += (x + getPlayerHitbox().width / 2 - camera.position.x) * lerp;
+                camera.position.x += (followX + getWidth() / 2 - camera.position.x) * lerp;
                 break;
             case DEAD_ZONE:
                 float deadZoneWidth = 200f; 
@@ -562,16 +895,16 @@ public class Player {
                 float bottomBound = camera.position.y - deadZoneHeight / 2;
                 float topBound = camera.position.y + deadZoneHeight / 2;
             
-                if (x + getPlayerHitbox().width / 2 < leftBound) {
-                    camera.position.x = x + getPlayerHitbox().width / 2;
-                } else if (x + getPlayerHitbox().width / 2 > rightBound) {
-                    camera.position.x = x + getPlayerHitbox().width / 2;
+                if (followX + getWidth() / 2 < leftBound) {
+                    camera.position.x = followX + getWidth() / 2;
+                } else if (followX + getWidth() / 2 > rightBound) {
+                    camera.position.x = followX + getWidth() / 2;
                 }
             
-                if (y + getPlayerHitbox().height / 2 < bottomBound) {
-                    camera.position.y = y + getPlayerHitbox().height / 2;
-                } else if (y + getPlayerHitbox().height / 2 > topBound) {
-                    camera.position.y = y + getPlayerHitbox().height / 2;
+                if (followY + getHeight() / 2 < bottomBound) {
+                    camera.position.y = followY + getHeight() / 2;
+                } else if (followY + getHeight() / 2 > topBound) {
+                    camera.position.y = followY + getHeight() / 2;
                 }
                 break;
             case ZOOM:
@@ -597,8 +930,8 @@ public class Player {
                 }
                 break;
             default: 
-                camera.position.x += (x + getPlayerHitbox().width / 2 - camera.position.x) * lerp;
-                camera.position.y += (y + getPlayerHitbox().height / 2 - camera.position.y) * lerp;
+                camera.position.x += (followX + getWidth() / 2 - camera.position.x) * lerp;
+                camera.position.y += (followY + getHeight() / 2 - camera.position.y) * lerp;
                 break;
         }
         camera.update();
@@ -616,6 +949,10 @@ public class Player {
         updateHitbox();
     }
 
+    public void moveLeft(float deltaTime,PlayerContacts contacts){
+        moveLeft(deltaTime, contacts.getLeft());
+    }
+
     public void moveRight(float deltaTime,Rectangle rightHitbox){
         if(rightHitbox == null || !isColliding(rightHitbox, COLLIDING_RIGHT)) {
             x += this.movementSpeed * deltaTime;
@@ -623,6 +960,10 @@ public class Player {
         updateHitbox();
     }
 
+    public void moveRight(float deltaTime,PlayerContacts contacts){
+        moveRight(deltaTime, contacts.getRight());
+    }
+
     public void DashLeft() {
         if (timeSinceLastDash >= dashCooldown && !isDashing && !hasDashed) {
             isDashing = true;
@@ -644,15 +985,27 @@ public class Player {
     }
 
     public void fallFaster(float deltaTime) {
+        fallFaster(deltaTime, null);
+    }
+
+    /*
+        with a collider source the fall is swept, so no speed cap is needed to avoid
+        passing through tiles; without one the step is capped to a 64px tile per frame
+    */
+    public void fallFaster(float deltaTime, ColliderSource colliders) {
         if (isFalling || isJumping) {
             isJumping = false;
     
             fallSpeed += gravity * deltaTime * 4;
     
-            float maxFallSpeed = 64f / deltaTime; 
-            fallSpeed = Math.min(fallSpeed, maxFallSpeed);
+            if (colliders == null) {
+                float maxFallSpeed = 64f / deltaTime; 
+                fallSpeed = Math.min(fallSpeed, maxFallSpeed);
+            }
     
-            y -= fallSpeed * deltaTime;
+            if (move(0f, -fallSpeed * deltaTime, colliders) && sweepHit.normalY > 0) {
+                land();
+            }
     
             updateHitbox();
         }
@@ -724,11 +1077,12 @@ public class Player {
         );
     }
 
-    public void drawAdiacentHitboxes(ArrayList<Tile> tiles,ShapeRenderer shapeRenderer) {
-        Rectangle groundHitbox = this.getGroundHitbox(tiles);
-        Rectangle topHitbox = this.getTopHitbox(tiles);
-        Rectangle leftHitbox = this.getLeftHitbox(tiles);
-        Rectangle rightHitbox = this.getRightHitbox(tiles);
+    // draws the contacts the last step left, like the ones of updatePosition, no collision query is done here
+    public void drawAdiacentHitboxes(PlayerContacts contacts,ShapeRenderer shapeRenderer) {
+        Rectangle groundHitbox = contacts.getGround();
+        Rectangle topHitbox = contacts.getTop();
+        Rectangle leftHitbox = contacts.getLeft();
+        Rectangle rightHitbox = contacts.getRight();
 
         
         if(topHitbox != null) {
@@ -748,4 +1102,28 @@ public class Player {
             shapeRenderer.rect(groundHitbox.x, groundHitbox.y, groundHitbox.width, groundHitbox.height);
         }
     }
-}
\ No newline at end of file
+
+    /*
+        same as above into a DebugOverlay, nothing is done while the overlay is disabled
+    */
+    public void drawHitboxes(DebugOverlay overlay) {
+        if (!overlay.isEnabled()) {
+            return;
+        }
+        overlay.rect(playerHitboxes[COLLIDING_TOP], 0, 1, 0, 1); // GREEN
+        overlay.rect(playerHitboxes[COLLIDING_BOTTOM], 1, 0, 0, 1); // RED
+        overlay.rect(playerHitboxes[COLLIDING_LEFT], 0, 0, 1, 1); // BLUE
+        overlay.rect(playerHitboxes[COLLIDING_RIGHT], 1, 1, 1, 1); // WHITE
+    }
+
+    // draws the contacts the last step left, no collision query is repeated
+    public void drawAdiacentHitboxes(PlayerContacts contacts, DebugOverlay overlay) {
+        if (!overlay.isEnabled()) {
+            return;
+        }
+        overlay.rect(contacts.getTop(), 0, 1, 0, 1); // GREEN
+        overlay.rect(contacts.getLeft(), 0, 0, 1, 1); // BLUE
+        overlay.rect(contacts.getRight(), 1, 1, 1, 1); // WHITE
+        overlay.rect(contacts.getGround(), 1, 0, 0, 1); // RED
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.FloorCollisionTest.Engine;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+    Result of Player.queryContacts, holds the tile hitboxes touching the player on each side
+    the object is meant to be created once and refilled every frame, the rectangles are owned
+    by this object so the getters return null when there is no contact on that side
+*/
+public class PlayerContacts {
+    private final Rectangle ground = new Rectangle();
+    private final Rectangle top = new Rectangle();
+    private final Rectangle left = new Rectangle();
+    private final Rectangle right = new Rectangle();
+    private boolean hasGround;
+    private boolean hasTop;
+    private boolean hasLeft;
+    private boolean hasRight;
+
+    public void clear() {
+        hasGround = false;
+        hasTop = false;
+        hasLeft = false;
+        hasRight = false;
+    }
+
+    public Rectangle getGround() {
+        return hasGround ? ground : null;
+    }
+
+    public Rectangle getTop() {
+        return hasTop ? top : null;
+    }
+
+    public Rectangle getLeft() {
+        return hasLeft ? left : null;
+    }
+
+    public Rectangle getRight() {
+        return hasRight ? right : null;
+    }
+
+    public boolean hasGround() {
+        return hasGround;
+    }
+
+    public boolean hasTop() {
+        return hasTop;
+    }
+
+    public boolean hasLeft() {
+        return hasLeft;
+    }
+
+    public boolean hasRight() {
+        return hasRight;
+    }
+
+    void setGround(float x, float y, float width, float height) {
+        ground.set(x, y, width, height);
+        hasGround = true;
+    }
+
+    void setTop(float x, float y, float width, float height) {
+        top.set(x, y, width, height);
+        hasTop = true;
+    }
+
+    void setLeft(float x, float y, float width, float height) {
+        left.set(x, y, width, height);
+        hasLeft = true;
+    }
+
+    void setRight(float x, float y, float width, float height) {
+        right.set(x, y, width, height);
+        hasRight = true;
+    }
+
+    @Override
+    public String toString() {
+        return "PlayerContacts{" +
+                "ground=" + getGround() +
+                ", top=" + getTop() +
+                ", left=" + getLeft() +
+                ", right=" + getRight() +
+                "}";
+    }
+}
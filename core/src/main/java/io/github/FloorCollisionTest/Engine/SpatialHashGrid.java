@@ -0,0 +1,207 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.ArrayList;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.LongMap;
+
+/*
+    Uniform spatial hash grid used as broadphase for tile collision
+    every tile is stored in each cell touched by its hitbox, so a query only visits
+    the cells covered by the query rectangle instead of every tile of the level
+*/
+public class SpatialHashGrid implements ColliderSource {
+    private final float cellSize;
+    private final LongMap<ArrayList<Tile>> cells = new LongMap<>();
+    private int size;
+    // merged colliders of the tiles, created on first use and kept in sync by insert and remove
+    private MergedColliders mergedColliders;
+
+    public static final float DEFAULT_CELL_SIZE = 128f;
+
+    public SpatialHashGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public SpatialHashGrid(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    public SpatialHashGrid(float cellSize, ArrayList<Tile> tiles) {
+        this(cellSize);
+        for (Tile tile : tiles) {
+            insert(tile);
+        }
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    // number of tiles stored in the grid
+    public int size() {
+        return size;
+    }
+
+    public void insert(Tile tile) {
+        if (tile == null) {
+            return;
+        }
+        int minX = cellOf(tile.getX());
+        int minY = cellOf(tile.getY());
+        int maxX = cellOf(tile.getX() + tile.getWidth());
+        int maxY = cellOf(tile.getY() + tile.getHeight());
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                long key = key(cx, cy);
+                ArrayList<Tile> bucket = cells.get(key);
+                if (bucket == null) {
+                    bucket = new ArrayList<>(4);
+                    cells.put(key, bucket);
+                }
+                bucket.add(tile);
+            }
+        }
+        size++;
+        if (mergedColliders != null) {
+            mergedColliders.insert(tile);
+        }
+    }
+
+    /*
+        removes the tile from every cell it was inserted in
+        the tile must not have been moved since it was inserted
+    */
+    public boolean remove(Tile tile) {
+        if (tile == null) {
+            return false;
+        }
+        int minX = cellOf(tile.getX());
+        int minY = cellOf(tile.getY());
+        int maxX = cellOf(tile.getX() + tile.getWidth());
+        int maxY = cellOf(tile.getY() + tile.getHeight());
+
+        boolean removed = false;
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                long key = key(cx, cy);
+                ArrayList<Tile> bucket = cells.get(key);
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size(); i++) {
+                    if (bucket.get(i) == tile) {
+                        // order inside a bucket doesn't matter, swap with the last one
+                        int last = bucket.size() - 1;
+                        bucket.set(i, bucket.get(last));
+                        bucket.remove(last);
+                        removed = true;
+                        break;
+                    }
+                }
+                if (bucket.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+        if (removed) {
+            size--;
+            if (mergedColliders != null) {
+                mergedColliders.remove(tile);
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        cells.clear();
+        size = 0;
+        if (mergedColliders != null) {
+            mergedColliders.clear();
+        }
+    }
+
+    /*
+        the tiles of the grid merged like ColliderMerger.merge, only the region around
+        an inserted or removed tile is merged again, so the colliders never go stale
+    */
+    public MergedColliders getMergedColliders() {
+        if (mergedColliders == null) {
+            mergedColliders = new MergedColliders();
+            for (LongMap.Entry<ArrayList<Tile>> entry : cells) {
+                int cx = (int) (entry.key >> 32);
+                int cy = (int) entry.key;
+                for (Tile tile : entry.value) {
+                    // every tile once, from the cell holding its corner
+                    if (cellOf(tile.getX()) == cx && cellOf(tile.getY()) == cy) {
+                        mergedColliders.insert(tile);
+                    }
+                }
+            }
+        }
+        return mergedColliders;
+    }
+
+    public void query(Rectangle area, ArrayList<Tile> out) {
+        query(area.x, area.y, area.width, area.height, out);
+    }
+
+    /*
+        adds to out every tile whose cells touch the given area, each tile at most once
+        out is not cleared, the caller is expected to reuse it between queries
+        the result is a superset of the overlapping tiles, exact tests are up to the caller
+    */
+    public void query(float x, float y, float width, float height, ArrayList<Tile> out) {
+        collect(x, y, width, height, out, null);
+    }
+
+    // same as query but the bounds of the tiles are appended to a packed store
+    @Override
+    public void gatherColliders(float x, float y, float width, float height, ColliderStore out) {
+        collect(x, y, width, height, null, out);
+    }
+
+    private void collect(float x, float y, float width, float height, ArrayList<Tile> tilesOut, ColliderStore collidersOut) {
+        int minX = cellOf(x);
+        int minY = cellOf(y);
+        int maxX = cellOf(x + width);
+        int maxY = cellOf(y + height);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                ArrayList<Tile> bucket = cells.get(key(cx, cy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size(); i++) {
+                    Tile tile = bucket.get(i);
+                    // a tile spanning many cells is reported only by the first cell
+                    // shared by the tile and the query, so no visited set is needed
+                    int firstX = Math.max(cellOf(tile.getX()), minX);
+                    int firstY = Math.max(cellOf(tile.getY()), minY);
+                    if (cx != firstX || cy != firstY) {
+                        continue;
+                    }
+                    if (tilesOut != null) {
+                        tilesOut.add(tile);
+                    }
+                    if (collidersOut != null) {
+                        collidersOut.add(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight());
+                    }
+                }
+            }
+        }
+    }
+
+    private int cellOf(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.FloorCollisionTest.Engine;
+
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+
+/*
+    A SpriteCache split in slots that are recycled, so geometry baked again and again doesn't
+    fill the cache: a slot is a cache id with a capacity, it's baked again in place while the
+    sprites fit, a freed slot is taken by the next bake it fits
+    when no slot fits and the cache is full, the cache is cleared, or created again bigger
+    when the live slots take more than half of it, and every slot is lost: the owners compare
+    getGeneration with the one they baked in and bake everything again
+    the SpriteCache is created by the first bake, so a pool can be made before the GL context
+    a SpriteCache can only redefine a cache id with at most the sprites it was created with and
+    creates the last cache id again when it's redefined, every bake is padded with empty sprites
+    up to the capacity of its slot so the capacity never shrinks
+*/
+public class SpriteCachePool implements Disposable {
+    public static final int DEFAULT_SIZE = 4096;
+    // capacities are rounded up to this, so a chunk that gets a few more sprites stays in its slot
+    private static final int SLOT_GRANULARITY = 64;
+
+    private SpriteCache cache;
+    private int size;
+    // sprites taken by the slots, the free ones included
+    private int used;
+    private int freeSprites;
+    private final IntIntMap capacities = new IntIntMap();
+    private final IntArray freeSlots = new IntArray();
+    private int generation;
+
+    // slot being baked, -1 while baking a new one, its capacity and the sprites added so far
+    private boolean baking;
+    private int bakingSlot;
+    private int bakingCapacity;
+    private int bakingCount;
+    private TextureRegion lastRegion;
+
+    public SpriteCachePool() {
+        this(DEFAULT_SIZE);
+    }
+
+    // size is the number of sprites the cache holds before it grows
+    public SpriteCachePool(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        this.size = size;
+    }
+
+    /*
+        starts baking count sprites in the slot, -1 for a chunk without one; the slot is kept when
+        they fit, otherwise it's freed and a free slot or a new one is taken, see endSlot
+        a full cache is cleared here, when the generation changes every other slot is lost
+    */
+    public void beginSlot(int slot, int count) {
+        if (baking) {
+            throw new IllegalStateException("endSlot must be called before beginSlot");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        if (cache == null) {
+            cache = new SpriteCache(size, false);
+        }
+        baking = true;
+        bakingCount = 0;
+        if (slot >= 0 && count <= capacities.get(slot, 0)) {
+            begin(slot, capacities.get(slot, 0));
+            return;
+        }
+        if (slot >= 0) {
+            freeSlot(slot);
+        }
+
+        int best = -1;
+        for (int i = 0; i < freeSlots.size; i++) {
+            int capacity = capacities.get(freeSlots.get(i), 0);
+            if (capacity >= count && (best < 0 || capacity < capacities.get(freeSlots.get(best), 0))) {
+                best = i;
+            }
+        }
+        if (best >= 0) {
+            int free = freeSlots.removeIndex(best);
+            freeSprites -= capacities.get(free, 0);
+            begin(free, capacities.get(free, 0));
+            return;
+        }
+
+        int capacity = (count + SLOT_GRANULARITY - 1) / SLOT_GRANULARITY * SLOT_GRANULARITY;
+        if (used + capacity > size) {
+            reset(used - freeSprites + capacity);
+        }
+        used += capacity;
+        begin(-1, capacity);
+    }
+
+    private void begin(int slot, int capacity) {
+        bakingSlot = slot;
+        bakingCapacity = capacity;
+        if (slot >= 0) {
+            cache.beginCache(slot);
+        } else {
+            cache.beginCache();
+        }
+    }
+
+    public void add(TextureRegion region, float x, float y, float width, float height) {
+        cache.add(region, x, y, width, height);
+        lastRegion = region;
+        bakingCount++;
+    }
+
+    // returns the slot holding the sprites added since beginSlot
+    public int endSlot() {
+        if (!baking) {
+            throw new IllegalStateException("beginSlot must be called before endSlot");
+        }
+        baking = false;
+        for (int i = bakingCount; i < bakingCapacity; i++) {
+            cache.add(lastRegion, 0, 0, 0, 0);
+        }
+        int slot = cache.endCache();
+        if (bakingSlot < 0) {
+            capacities.put(slot, bakingCapacity);
+        }
+        return slot;
+    }
+
+    // the slot can be taken by the next bake, it must belong to the current generation
+    public void freeSlot(int slot) {
+        freeSlots.add(slot);
+        freeSprites += capacities.get(slot, 0);
+    }
+
+    private void reset(int liveSprites) {
+        if (2 * liveSprites > size) {
+            size = Math.max(2 * size, 2 * liveSprites);
+            cache.dispose();
+            cache = new SpriteCache(size, false);
+        } else {
+            cache.clear();
+        }
+        used = 0;
+        freeSprites = 0;
+        capacities.clear();
+        freeSlots.clear();
+        generation++;
+    }
+
+    // changes every time the slots are lost
+    public int getGeneration() {
+        return generation;
+    }
+
+    // the cache the slots are drawn from, null before the first bake, it changes when the generation does
+    public SpriteCache getCache() {
+        return cache;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // sprites of the cache held by no slot or by a free slot
+    public int getFreeSprites() {
+        return size - used + freeSprites;
+    }
+
+    // drops the cache and every slot, the next bake creates the cache again
+    @Override
+    public void dispose() {
+        if (cache != null) {
+            cache.dispose();
+            cache = null;
+        }
+        used = 0;
+        freeSprites = 0;
+        capacities.clear();
+        freeSlots.clear();
+        generation++;
+    }
+}
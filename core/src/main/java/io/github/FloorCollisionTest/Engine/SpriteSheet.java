@@ -0,0 +1,85 @@
+package io.github.FloorCollisionTest.Engine;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/*
+    Slicing of a sprite sheet into animation frames
+    every frame is a TextureRegion of the same backing Texture, so drawing frames of one sheet
+    never switches texture and the SpriteBatch can draw all of them in the same call
+    the Pixmap methods decode and slice on the CPU only, they need no GL context and can run
+    headless or on a worker thread
+*/
+public final class SpriteSheet {
+
+    private SpriteSheet() {}
+
+    /*
+        frames are read left to right, top to bottom, with padding pixels between two frames
+    */
+    public static TextureRegion[] sliceRegions(Texture sheet, int frameWidth, int frameHeight, int padding) {
+        int[] bounds = frameBounds(sheet.getWidth(), sheet.getHeight(), frameWidth, frameHeight, padding);
+        TextureRegion[] frames = new TextureRegion[bounds.length / 2];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = new TextureRegion(sheet, bounds[i * 2], bounds[i * 2 + 1], frameWidth, frameHeight);
+        }
+        return frames;
+    }
+
+    /*
+        origin of every frame of a sheet as (x0, y0, x1, y1, ...), in the same order as sliceRegions
+        only the sheet size is needed, so frame layouts can be computed without loading anything
+    */
+    public static int[] frameBounds(int sheetWidth, int sheetHeight, int frameWidth, int frameHeight, int padding) {
+        int columns = countFrames(sheetWidth, frameWidth, padding);
+        int rows = countFrames(sheetHeight, frameHeight, padding);
+        int[] bounds = new int[columns * rows * 2];
+
+        int index = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                bounds[index++] = col * (frameWidth + padding);
+                bounds[index++] = row * (frameHeight + padding);
+            }
+        }
+        return bounds;
+    }
+
+    // decodes the sheet file straight into a Pixmap, no Texture is created
+    public static Pixmap decode(FileHandle file) {
+        byte[] bytes = file.readBytes();
+        return new Pixmap(bytes, 0, bytes.length);
+    }
+
+    /*
+        copies every frame of the sheet into its own Pixmap, the caller disposes them
+        the sheet is read directly, without uploading it to the GPU and reading it back
+    */
+    public static Pixmap[] slicePixmaps(Pixmap sheet, int frameWidth, int frameHeight, int padding) {
+        int[] bounds = frameBounds(sheet.getWidth(), sheet.getHeight(), frameWidth, frameHeight, padding);
+        Pixmap[] frames = new Pixmap[bounds.length / 2];
+        for (int i = 0; i < frames.length; i++) {
+            Pixmap frame = new Pixmap(frameWidth, frameHeight, sheet.getFormat());
+            frame.setBlending(Pixmap.Blending.None);
+            frame.drawPixmap(sheet, 0, 0, bounds[i * 2], bounds[i * 2 + 1], frameWidth, frameHeight);
+            frames[i] = frame;
+        }
+        return frames;
+    }
+
+    // wraps single textures, one per frame, into regions covering the whole texture
+    public static TextureRegion[] toRegions(Texture[] textures) {
+        TextureRegion[] regions = new TextureRegion[textures.length];
+        for (int i = 0; i < textures.length; i++) {
+            regions[i] = new TextureRegion(textures[i]);
+        }
+        return regions;
+    }
+
+    // number of whole frames fitting in a side of the sheet
+    public static int countFrames(int sheetSize, int frameSize, int padding) {
+        return (sheetSize + padding) / (frameSize + padding);
+    }
+}
@@ -0,0 +1,174 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+/*
+    Sweep and prune broadphase for moving actors
+    the actors are kept sorted by the left side of their bounds; since actors move little between
+    two frames the order is fixed with an insertion sort, which is close to linear on an almost
+    sorted list; a sweep along x then only pairs actors whose x intervals overlap
+    the narrow phase uses the four side hitboxes built by Player.generatePlayerHitboxes
+*/
+public class SweepAndPrune {
+    private final ArrayList<Player> actors = new ArrayList<>();
+    private float[] minX = new float[16];
+    private float[] maxX = new float[16];
+    private float[] minY = new float[16];
+    private float[] maxY = new float[16];
+    // actor indices sorted by minX, persistent between frames
+    private int[] order = new int[16];
+    // indices of the actors whose x interval is still open during the sweep
+    private int[] active = new int[16];
+
+    public int size() {
+        return actors.size();
+    }
+
+    public Player getActor(int index) {
+        return actors.get(index);
+    }
+
+    public int indexOf(Player actor) {
+        return actors.indexOf(actor);
+    }
+
+    // returns the index of the actor, used in the pairs reported by findPairs
+    public int add(Player actor) {
+        int index = actors.size();
+        actors.add(actor);
+        if (index == minX.length) {
+            int capacity = index * 2;
+            minX = Arrays.copyOf(minX, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+            order = Arrays.copyOf(order, capacity);
+            active = Arrays.copyOf(active, capacity);
+        }
+        updateBounds(index);
+        // the new actor is appended and moved to its place by the next update
+        order[index] = index;
+        return index;
+    }
+
+    /*
+        removes the actor, the last actor takes its index
+    */
+    public boolean remove(Player actor) {
+        int index = actors.indexOf(actor);
+        if (index < 0) {
+            return false;
+        }
+        int last = actors.size() - 1;
+        actors.set(index, actors.get(last));
+        actors.remove(last);
+        minX[index] = minX[last];
+        maxX[index] = maxX[last];
+        minY[index] = minY[last];
+        maxY[index] = maxY[last];
+
+        int write = 0;
+        for (int read = 0; read <= last; read++) {
+            int entry = order[read];
+            if (entry == index) {
+                continue;
+            }
+            order[write++] = entry == last ? index : entry;
+        }
+        return true;
+    }
+
+    public void clear() {
+        actors.clear();
+    }
+
+    /*
+        reads the current hitboxes of every actor and restores the order along x
+    */
+    public void update() {
+        int count = actors.size();
+        for (int i = 0; i < count; i++) {
+            updateBounds(i);
+        }
+        for (int i = 1; i < count; i++) {
+            int entry = order[i];
+            float key = minX[entry];
+            int j = i - 1;
+            while (j >= 0 && minX[order[j]] > key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = entry;
+        }
+    }
+
+    /*
+        appends to out the candidate pairs as consecutive actor indices (a0, b0, a1, b1, ...)
+        the bounds of both actors of a pair overlap, call update first
+    */
+    public void findPairs(IntArray out) {
+        int count = actors.size();
+        int activeCount = 0;
+        for (int i = 0; i < count; i++) {
+            int current = order[i];
+            float start = minX[current];
+
+            // drop the intervals that ended before this one starts
+            int kept = 0;
+            for (int a = 0; a < activeCount; a++) {
+                int other = active[a];
+                if (maxX[other] >= start) {
+                    active[kept++] = other;
+                    if (minY[current] <= maxY[other] && maxY[current] >= minY[other]) {
+                        out.add(Math.min(current, other), Math.max(current, other));
+                    }
+                }
+            }
+            activeCount = kept;
+            active[activeCount++] = current;
+        }
+    }
+
+    /*
+        broadphase plus narrow phase: for every pair whose hitboxes really touch appends
+        (a, b, sidesOfA, sidesOfB) where the sides are Player.getContactSides masks
+    */
+    public void findContacts(IntArray pairsBuffer, IntArray out) {
+        pairsBuffer.clear();
+        findPairs(pairsBuffer);
+        for (int i = 0; i < pairsBuffer.size; i += 2) {
+            Player a = actors.get(pairsBuffer.get(i));
+            Player b = actors.get(pairsBuffer.get(i + 1));
+            int sidesOfA = a.getContactSides(b);
+            int sidesOfB = b.getContactSides(a);
+            if (sidesOfA != 0 || sidesOfB != 0) {
+                out.add(pairsBuffer.get(i), pairsBuffer.get(i + 1));
+                out.add(sidesOfA, sidesOfB);
+            }
+        }
+    }
+
+    // the bounds of an actor enclose its four side hitboxes
+    private void updateBounds(int index) {
+        Player actor = actors.get(index);
+        float left = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        float bottom = Float.MAX_VALUE;
+        float top = -Float.MAX_VALUE;
+        for (int side = 0; side < 4; side++) {
+            Rectangle hitbox = actor.getPlayerHitbox(side);
+            left = Math.min(left, hitbox.x);
+            right = Math.max(right, hitbox.x + hitbox.width);
+            bottom = Math.min(bottom, hitbox.y);
+            top = Math.max(top, hitbox.y + hitbox.height);
+        }
+        minX[index] = left;
+        maxX[index] = right;
+        minY[index] = bottom;
+        maxY[index] = top;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.FloorCollisionTest.Engine;
+
+/*
+    Continuous collision for a moving axis aligned box against static colliders
+    instead of moving first and pushing out afterwards, the time of impact along the
+    motion is computed, so fast motion can't skip over thin colliders at any delta time
+*/
+public final class SweptAABB {
+
+    /*
+        result of a sweep, time is the fraction of the motion that can be travelled (0..1)
+        the normal points away from the hit surface, index is the collider index in the store
+    */
+    public static class Hit {
+        public boolean hit;
+        public float time = 1f;
+        public float normalX;
+        public float normalY;
+        public int index = -1;
+
+        public void reset() {
+            hit = false;
+            time = 1f;
+            normalX = 0f;
+            normalY = 0f;
+            index = -1;
+        }
+    }
+
+    private SweptAABB() {}
+
+    /*
+        sweeps the box (x, y, width, height) by (dx, dy) against every collider of the store
+        returns the time of impact of the earliest hit or 1 when the path is free
+        colliders already overlapping the box at the start are ignored, they are left
+        to the regular collision resolution; boxes that only touch on an edge don't block
+        motion parallel to that edge
+    */
+    public static float sweep(float x, float y, float width, float height, float dx, float dy, ColliderStore colliders, Hit out) {
+        out.reset();
+        if (dx == 0f && dy == 0f) {
+            return 1f;
+        }
+
+        float[] xs = colliders.x;
+        float[] ys = colliders.y;
+        float[] widths = colliders.width;
+        float[] heights = colliders.height;
+        int count = colliders.size();
+
+        float invDx = dx != 0f ? 1f / dx : 0f;
+        float invDy = dy != 0f ? 1f / dy : 0f;
+
+        for (int i = 0; i < count; i++) {
+            float cx = xs[i];
+            float cy = ys[i];
+            float cw = widths[i];
+            float ch = heights[i];
+
+            float entryX, exitX;
+            if (dx == 0f) {
+                if (!(x < cx + cw && x + width > cx)) {
+                    continue;
+                }
+                entryX = Float.NEGATIVE_INFINITY;
+                exitX = Float.POSITIVE_INFINITY;
+            } else if (dx > 0f) {
+                entryX = (cx - (x + width)) * invDx;
+                exitX = (cx + cw - x) * invDx;
+            } else {
+                entryX = (cx + cw - x) * invDx;
+                exitX = (cx - (x + width)) * invDx;
+            }
+
+            float entryY, exitY;
+            if (dy == 0f) {
+                if (!(y < cy + ch && y + height > cy)) {
+                    continue;
+                }
+                entryY = Float.NEGATIVE_INFINITY;
+                exitY = Float.POSITIVE_INFINITY;
+            } else if (dy > 0f) {
+                entryY = (cy - (y + height)) * invDy;
+                exitY = (cy + ch - y) * invDy;
+            } else {
+                entryY = (cy + ch - y) * invDy;
+                exitY = (cy - (y + height)) * invDy;
+            }
+
+            float entry = Math.max(entryX, entryY);
+            float exit = Math.min(exitX, exitY);
+
+            if (entry >= exit || entry < 0f || entry >= out.time) {
+                continue;
+            }
+
+            out.hit = true;
+            out.time = entry;
+            out.index = i;
+            if (entryX > entryY) {
+                out.normalX = dx > 0f ? -1f : 1f;
+                out.normalY = 0f;
+            } else {
+                out.normalX = 0f;
+                out.normalY = dy > 0f ? -1f : 1f;
+            }
+        }
+        return out.time;
+    }
+
+    /*
+        gathers the colliders along the motion from source into scratch and sweeps against them
+        scratch is cleared first and can be reused between calls
+    */
+    public static float sweep(float x, float y, float width, float height, float dx, float dy,
+            ColliderSource source, ColliderStore scratch, Hit out) {
+        scratch.clear();
+        source.gatherColliders(
+            Math.min(x, x + dx), Math.min(y, y + dy),
+            width + Math.abs(dx), height + Math.abs(dy),
+            scratch
+        );
+        return sweep(x, y, width, height, dx, dy, scratch, out);
+    }
+}
@@ -0,0 +1,273 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+
+/*
+    Shared, reference counted textures, sheet frames and animations
+    a sheet is decoded and uploaded once however many tiles use it, textures are keyed by path,
+    frames by path + frame size + padding and animations by the frames key + frame duration
+    every acquire must be matched by a release, the texture is disposed with its last user
+*/
+public class TextureCache implements Disposable {
+
+    private static class TextureEntry {
+        Texture texture;
+        int references;
+    }
+
+    private static class FramesEntry {
+        String path;
+        int frameWidth;
+        int frameHeight;
+        int padding;
+        TextureRegion[] frames;
+        int references;
+    }
+
+    private static class AnimationEntry {
+        // the animation is over the frames of a sheet, or over whole textures
+        String framesKey;
+        String[] texturePaths;
+        Animation<TextureRegion> animation;
+        int references;
+    }
+
+    private final HashMap<String, TextureEntry> textures = new HashMap<>();
+    private final HashMap<String, FramesEntry> frames = new HashMap<>();
+    private final HashMap<String, AnimationEntry> animations = new HashMap<>();
+    // keys of the shared frames and animations, to release them from the instance
+    private final IdentityHashMap<Object, String> keys = new IdentityHashMap<>();
+
+    public Texture acquireTexture(String path) {
+        TextureEntry entry = textures.get(path);
+        if (entry == null) {
+            entry = new TextureEntry();
+            entry.texture = loadTexture(path);
+            textures.put(path, entry);
+        }
+        entry.references++;
+        return entry.texture;
+    }
+
+    public void releaseTexture(String path) {
+        TextureEntry entry = textures.get(path);
+        if (entry == null) {
+            throw new IllegalStateException("texture not acquired: " + path);
+        }
+        if (--entry.references == 0) {
+            textures.remove(path);
+            entry.texture.dispose();
+        }
+    }
+
+    /*
+        frames of a sheet sliced like SpriteSheet.sliceRegions, the array is shared and must not be modified
+    */
+    public TextureRegion[] acquireFrames(String path, int frameWidth, int frameHeight, int padding) {
+        String key = framesKey(path, frameWidth, frameHeight, padding);
+        FramesEntry entry = frames.get(key);
+        if (entry == null) {
+            entry = new FramesEntry();
+            entry.path = path;
+            entry.frameWidth = frameWidth;
+            entry.frameHeight = frameHeight;
+            entry.padding = padding;
+            entry.frames = SpriteSheet.sliceRegions(acquireTexture(path), frameWidth, frameHeight, padding);
+            frames.put(key, entry);
+            keys.put(entry.frames, key);
+        }
+        entry.references++;
+        return entry.frames;
+    }
+
+    public void releaseFrames(TextureRegion[] sharedFrames) {
+        String key = keys.get(sharedFrames);
+        FramesEntry entry = key == null ? null : frames.get(key);
+        if (entry == null) {
+            throw new IllegalStateException("frames not acquired from this cache");
+        }
+        if (--entry.references == 0) {
+            frames.remove(key);
+            keys.remove(sharedFrames);
+            releaseTexture(entry.path);
+        }
+    }
+
+    /*
+        animation over the shared frames of a sheet, tiles using the same sheet and
+        frame duration get the same Animation instance
+    */
+    public Animation<TextureRegion> acquireAnimation(String path, int frameWidth, int frameHeight, int padding, float frameDuration) {
+        String framesKey = framesKey(path, frameWidth, frameHeight, padding);
+        String key = framesKey + "|" + frameDuration;
+        AnimationEntry entry = animations.get(key);
+        if (entry == null) {
+            entry = new AnimationEntry();
+            entry.framesKey = framesKey;
+            entry.animation = new Animation<>(frameDuration, acquireFrames(path, frameWidth, frameHeight, padding));
+            animations.put(key, entry);
+            keys.put(entry.animation, key);
+        }
+        entry.references++;
+        return entry.animation;
+    }
+
+    /*
+        animation with one whole texture per frame, like the cells of a TileMap, the same files
+        and frame duration give the same Animation instance
+    */
+    public Animation<TextureRegion> acquireAnimation(String[] paths, float frameDuration) {
+        StringBuilder builder = new StringBuilder("textures");
+        for (String path : paths) {
+            builder.append('|').append(path);
+        }
+        String key = builder.append('|').append(frameDuration).toString();
+        AnimationEntry entry = animations.get(key);
+        if (entry == null) {
+            entry = new AnimationEntry();
+            entry.texturePaths = paths.clone();
+            TextureRegion[] regions = new TextureRegion[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                regions[i] = new TextureRegion(acquireTexture(paths[i]));
+            }
+            entry.animation = new Animation<>(frameDuration, regions);
+            animations.put(key, entry);
+            keys.put(entry.animation, key);
+        }
+        entry.references++;
+        return entry.animation;
+    }
+
+    public void releaseAnimation(Animation<TextureRegion> animation) {
+        String key = keys.get(animation);
+        AnimationEntry entry = key == null ? null : animations.get(key);
+        if (entry == null) {
+            throw new IllegalStateException("animation not acquired from this cache");
+        }
+        if (--entry.references == 0) {
+            animations.remove(key);
+            keys.remove(animation);
+            if (entry.framesKey != null) {
+                releaseFrames(frames.get(entry.framesKey).frames);
+            } else {
+                for (String path : entry.texturePaths) {
+                    releaseTexture(path);
+                }
+            }
+        }
+    }
+
+    /*
+        uploads the file at path again into the texture already in the cache, so the frames and
+        animations over it stay valid; their regions are set again for the new size, a sheet
+        is sliced again and its frames take the bounds of the new frames with the same index,
+        the frames a bigger sheet adds are left out until the frames are acquired anew
+        returns false when the texture isn't loaded
+    */
+    public boolean reloadTexture(String path) {
+        TextureEntry entry = textures.get(path);
+        if (entry == null) {
+            return false;
+        }
+        TextureData old = entry.texture.getTextureData();
+        FileHandle file = Gdx.files.internal(path);
+        // textures uploaded from a Pixmap, like the ones of AsyncTextureLoader, aren't managed
+        if (old.isManaged()) {
+            entry.texture.load(TextureData.Factory.loadFromFile(file, old.useMipMaps()));
+        } else {
+            entry.texture.load(new PixmapTextureData(SpriteSheet.decode(file), null, old.useMipMaps(), true, false));
+        }
+        refreshRegions(path, entry.texture);
+        return true;
+    }
+
+    // texture coordinates of the regions are fractions of the texture size, they are computed again after a reload
+    private void refreshRegions(String path, Texture texture) {
+        for (FramesEntry entry : frames.values()) {
+            if (!entry.path.equals(path)) {
+                continue;
+            }
+            TextureRegion[] sliced = SpriteSheet.sliceRegions(texture, entry.frameWidth, entry.frameHeight, entry.padding);
+            for (int i = 0; i < Math.min(sliced.length, entry.frames.length); i++) {
+                entry.frames[i].setRegion(sliced[i]);
+            }
+        }
+        for (AnimationEntry entry : animations.values()) {
+            if (entry.texturePaths == null) {
+                continue;
+            }
+            TextureRegion[] regions = entry.animation.getKeyFrames();
+            for (int i = 0; i < entry.texturePaths.length; i++) {
+                if (entry.texturePaths[i].equals(path)) {
+                    regions[i].setRegion(texture);
+                }
+            }
+        }
+    }
+
+    // paths of the textures currently in the cache
+    public String[] getTexturePaths() {
+        return textures.keySet().toArray(new String[0]);
+    }
+
+    // true when the texture at path is in the cache, acquiring it won't load anything
+    public boolean isLoaded(String path) {
+        return textures.containsKey(path);
+    }
+
+    /*
+        puts a texture uploaded somewhere else, like by AsyncTextureLoader, in the cache with no users yet
+        the first acquire takes it and the last release disposes it; when the path is already
+        loaded the given texture is disposed and the cached one is kept
+    */
+    void adoptTexture(String path, Texture texture) {
+        if (textures.containsKey(path)) {
+            texture.dispose();
+            return;
+        }
+        TextureEntry entry = new TextureEntry();
+        entry.texture = texture;
+        textures.put(path, entry);
+    }
+
+    // number of users of the texture at path, 0 when it isn't loaded
+    public int getReferenceCount(String path) {
+        TextureEntry entry = textures.get(path);
+        return entry == null ? 0 : entry.references;
+    }
+
+    // number of textures currently uploaded by the cache
+    public int getTextureCount() {
+        return textures.size();
+    }
+
+    protected Texture loadTexture(String path) {
+        return new Texture(Gdx.files.internal(path));
+    }
+
+    // disposes every texture whatever its reference count, the cache can be reused afterwards
+    @Override
+    public void dispose() {
+        for (TextureEntry entry : textures.values()) {
+            entry.texture.dispose();
+        }
+        textures.clear();
+        frames.clear();
+        animations.clear();
+        keys.clear();
+    }
+
+    private static String framesKey(String path, int frameWidth, int frameHeight, int padding) {
+        return path + "|" + frameWidth + "x" + frameHeight + "|" + padding;
+    }
+}
@@ -2,10 +2,10 @@ package io.github.FloorCollisionTest.Engine;
 
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 
 /*
@@ -13,19 +13,22 @@ import com.badlogic.gdx.math.Rectangle;
     contains every basic configuration for a tile and is a basic component
 */
 public class Tile {
-    private final Rectangle[] tileHitboxes;
-    private Animation<Texture> tileAnimation;
-    private Texture currentFrame;
+    // bounds kept as primitives, reading them never touches a Rectangle
+    private float x, y, width, height;
+    private Animation<TextureRegion> tileAnimation;
+    private TextureRegion currentFrame;
     private float stateTime;
+    private AnimationGroup animationGroup;
+    private float phaseOffset;
     public static final int COLLIDING_TOP = 0;
     public static final int COLLIDING_BOTTOM = 1;
     public static final int COLLIDING_LEFT = 2;
     public static final int COLLIDING_RIGHT = 3;
 
-    public static final int LINEAR = 0;
-    public static final int EASE_IN_OUT = 1;
-    public static final int EASE_IN = 2;
-    public static final int EASE_OUT = 3;
+    public static final int LINEAR = Easings.LINEAR;
+    public static final int EASE_IN_OUT = Easings.EASE_IN_OUT;
+    public static final int EASE_IN = Easings.EASE_IN;
+    public static final int EASE_OUT = Easings.EASE_OUT;
     
 
     
@@ -46,8 +49,11 @@ public class Tile {
 
     }
 
-    // utility method to generate a texture from an atlas
-    public static Texture[] generateTextureFromAtlas(String path, int frameWidth, int frameHeight,int padding) {
+    /*
+        utility method to generate the frames of an atlas
+        the sheet is uploaded once and every frame is a region of that texture
+    */
+    public static TextureRegion[] generateTextureFromAtlas(String path, int frameWidth, int frameHeight,int padding) {
         if(path == null || path.isEmpty()) {
             return null;
         }
@@ -59,42 +65,7 @@ public class Tile {
         }
 
         Texture sheetTexture = new Texture(Gdx.files.internal(path));
-
-        Pixmap fullPixmap = Tile.getPixmapFromTexture(sheetTexture);
-
-        int columns = fullPixmap.getWidth() / frameWidth;
-        int rows = fullPixmap.getHeight() / frameHeight;
-        int totalFrames = columns * rows;
-
-        Texture[] frames = new Texture[totalFrames];
-
-        int index = 0;
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < columns; col++) {
-                Pixmap framePixmap = new Pixmap(frameWidth, frameHeight, fullPixmap.getFormat());
-                framePixmap.drawPixmap(
-                    fullPixmap,
-                    0, 0,
-                    col * (frameWidth + padding), row * (frameHeight + padding),
-                    frameWidth, frameHeight
-                );
-                frames[index++] = new Texture(framePixmap);
-                framePixmap.dispose();
-            }
-        }
-
-        fullPixmap.dispose();
-        sheetTexture.dispose(); 
-
-        return frames;
-    }
-
-    /*
-    Utility method to extract a Pixmap from a Texture.
-    */
-    private static Pixmap getPixmapFromTexture(Texture texture) {
-        texture.getTextureData().prepare();
-        return texture.getTextureData().consumePixmap();
+        return SpriteSheet.sliceRegions(sheetTexture, frameWidth, frameHeight, padding);
     }
 
 
@@ -103,59 +74,100 @@ public class Tile {
         how much time requires to the animation to update
     */
     public Tile(Rectangle tileHitbox, Texture[] tileTextures, float frameDuration) {
+        this(tileHitbox, tileTextures == null ? null : SpriteSheet.toRegions(tileTextures), frameDuration);
+    }
+
+    // same as above with frames that can share the same texture
+    public Tile(Rectangle tileHitbox, TextureRegion[] tileTextures, float frameDuration) {
         if(tileTextures == null || tileTextures.length == 0) {
-            this.tileHitboxes = null;
             this.tileAnimation = null;
             this.stateTime = 0f;
             return;
         }
         if(frameDuration <= 0) {
-            this.tileHitboxes = null;
             this.tileAnimation = null;
             this.stateTime = 0f;
             return;
         }
         if(tileHitbox == null) {
-            this.tileHitboxes = null;
             this.tileAnimation = null;
             this.stateTime = 0f;
             return;
         }
 
 
-        this.tileHitboxes = generateTileHitboxes(tileHitbox);
+        setBounds(tileHitbox);
         this.tileAnimation = new Animation<>(frameDuration, tileTextures);
         this.stateTime = 0f;
     }
 
-    public Tile(Rectangle tileHitbox,Animation<Texture> tileAnimation) {
-        this.tileHitboxes = generateTileHitboxes(tileHitbox);
+    public Tile(Rectangle tileHitbox,Animation<TextureRegion> tileAnimation) {
+        setBounds(tileHitbox);
         this.tileAnimation = tileAnimation;
         this.stateTime = 0f;
     }
 
     public Rectangle getTileHitbox() {
-        return new Rectangle(tileHitboxes[0].x, tileHitboxes[0].y, tileHitboxes[0].width, tileHitboxes[2].height);
+        return getTileHitbox(new Rectangle());
+    }
+
+    // writes the tile hitbox into out instead of allocating a new Rectangle
+    public Rectangle getTileHitbox(Rectangle out) {
+        return out.set(getX(), getY(), getWidth(), getHeight());
     }
 
     public float getX() {
-        return tileHitboxes[0].x;
+        return x;
     }
     
     public float getY() {
-        return tileHitboxes[0].y;
+        return y;
     }
 
     public float getWidth() {
-        return tileHitboxes[0].width;
+        return width;
     }
 
     public float getHeight() {
-        return tileHitboxes[2].height;
+        return height;
+    }
+
+    private void setBounds(Rectangle bounds) {
+        x = bounds.x;
+        y = bounds.y;
+        width = bounds.width;
+        height = bounds.height;
+    }
+
+    public Animation<TextureRegion> getAnimation() {
+        return tileAnimation;
+    }
+
+    // a tile with a single frame never changes, its sprite can be baked once
+    public boolean isStatic() {
+        return tileAnimation != null && tileAnimation.getKeyFrames().length == 1;
+    }
+
+    /*
+        the tile reads its frame from the shared clock of the group instead of its own stateTime,
+        phaseOffset is how many seconds the tile is ahead of the group
+    */
+    public void setAnimationGroup(AnimationGroup animationGroup, float phaseOffset) {
+        this.animationGroup = animationGroup;
+        this.phaseOffset = phaseOffset;
+    }
+
+    public void setAnimationGroup(AnimationGroup animationGroup) {
+        setAnimationGroup(animationGroup, 0f);
+    }
+
+    public AnimationGroup getAnimationGroup() {
+        return animationGroup;
     }
 
     /*
         stateTime variable holds time passed from start of animation
+        a tile in an AnimationGroup doesn't need it, the group clock is advanced instead
     */
     public void updateSprite(float deltaTime) {
         stateTime += deltaTime;
@@ -169,38 +181,17 @@ public class Tile {
         1 = easeInOut
         2 = easeIn
         3 = easeOut
-        the default is linear
+        the default is linear, other styles can be registered in Easings
         the animation is not looping by default, but you can set it to loop by passing true to the method
+        a tile in an AnimationGroup draws the frame of the group, with the style and looping of the group
     */
     public void renderSprite(SpriteBatch batch, int AnimationStyle,boolean looping) {
-        float duration = tileAnimation.getAnimationDuration();
-        float t = Math.min(stateTime / duration, 1f); 
-    
-        switch (AnimationStyle) {
-            case LINEAR: 
-                this.currentFrame = tileAnimation.getKeyFrame(stateTime, looping);
-                break;
-            case EASE_IN_OUT:
-                float easedInOutT = (float)(-0.5f * (Math.cos(Math.PI * t) - 1));
-                float easedInOutTime = easedInOutT * duration;
-                this.currentFrame = tileAnimation.getKeyFrame(easedInOutTime, looping);
-                break;    
-            case EASE_IN: 
-                float easeInT = t * t;
-                float easeInTime = easeInT * duration;
-                this.currentFrame = tileAnimation.getKeyFrame(easeInTime, looping);
-                break;
-            case EASE_OUT: 
-                float easeOutT = 1 - (1 - t) * (1 - t);
-                float easeOutTime = easeOutT * duration;
-                this.currentFrame = tileAnimation.getKeyFrame(easeOutTime, looping);
-                break;
-            default:
-                this.currentFrame = tileAnimation.getKeyFrame(stateTime, looping);
-                break;
+        if (animationGroup != null) {
+            this.currentFrame = animationGroup.getKeyFrame(phaseOffset);
+        } else {
+            this.currentFrame = Easings.resolveFrame(tileAnimation, AnimationStyle, stateTime, looping);
         }
-    
-        batch.draw(this.currentFrame, tileHitboxes[0].x, tileHitboxes[0].y, tileHitboxes[0].width, tileHitboxes[2].height);
+        batch.draw(this.currentFrame, getX(), getY(), getWidth(), getHeight());
     }
     
     /*
@@ -208,12 +199,8 @@ public class Tile {
     */
     // generic collision
     public boolean isColliding(Rectangle hitbox) {
-        for (Rectangle tileHitbox : tileHitboxes) {
-            if (tileHitbox.overlaps(hitbox)) {
-                return true;
-            }
-        }
-        return false;
+        return isColliding(hitbox, COLLIDING_TOP) || isColliding(hitbox, COLLIDING_BOTTOM)
+            || isColliding(hitbox, COLLIDING_LEFT) || isColliding(hitbox, COLLIDING_RIGHT);
     }
 
     /*
@@ -223,6 +210,30 @@ public class Tile {
      3 = right
     */
     public boolean isColliding(Rectangle hitbox, int typeOfCollision) {
-        return tileHitboxes[typeOfCollision].overlaps(hitbox);
+        // the side hitboxes are the ones built by generateTileHitboxes, computed from the bounds
+        float sideX = getX();
+        float sideY = getY();
+        float sideWidth = getWidth();
+        float sideHeight = getHeight();
+        switch (typeOfCollision) {
+            case COLLIDING_TOP:
+                sideHeight = 1;
+                break;
+            case COLLIDING_BOTTOM:
+                sideY += sideHeight;
+                sideHeight = 1;
+                break;
+            case COLLIDING_LEFT:
+                sideWidth = 1;
+                break;
+            case COLLIDING_RIGHT:
+                sideX += sideWidth;
+                sideWidth = 1;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown collision type: " + typeOfCollision);
+        }
+        return sideX < hitbox.x + hitbox.width && sideX + sideWidth > hitbox.x
+            && sideY < hitbox.y + hitbox.height && sideY + sideHeight > hitbox.y;
     }
 }
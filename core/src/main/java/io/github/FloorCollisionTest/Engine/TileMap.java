@@ -1,59 +1,992 @@
 package io.github.FloorCollisionTest.Engine;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Json;
-import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.Disposable;
 
-public class TileMap {
-    private Tile[][] map;
+public class TileMap implements ColliderSource, Disposable {
+    /*
+        the cells are split in chunks of CHUNK_SIZE x CHUNK_SIZE, everything per chunk is made
+        the first time something reaches the chunk, so opening a map costs the same for any size
+        a row of a chunk fits an int of solidity bits: the words are one int per 32 cells of a
+        chunk row rather than longs spanning a map row, so making or editing a chunk only
+        touches its own words
+    */
+    public static final int CHUNK_SIZE = 32;
+
+    /*
+        type id of every cell, TileMapFormat.EMPTY when the cell has no tile; the cells are read
+        in place from the map data the map was built from, source cell (sourceX + x, sourceY + y),
+        and a chunk gets its own copy in chunkCells the first time one of its cells is written
+        the types are flyweights kept once in the palette with their shared animation and clock,
+        positions come from the cell coordinates
+    */
+    private TileMapFormat.MapData source;
+    private int sourceX;
+    private int sourceY;
+    private short[][] chunkCells;
+    private final ArrayList<TileType> palette = new ArrayList<>();
+    private final ArrayList<Animation<TextureRegion>> paletteAnimations = new ArrayList<>();
+    private final ArrayList<AnimationGroup> paletteGroups = new ArrayList<>();
+    private final HashMap<TileType, Short> typeIds = new HashMap<>();
     private int mapWidth;
     private int mapHeight;
+    private float tileWidth;
+    private float tileHeight;
+    // world position of the corner of cell (0, 0), not zero for the chunks of a ChunkedWorld
+    private float originX;
+    private float originY;
+
+    /*
+        solidity of the cells of every chunk packed in bits, one int per row of the chunk
+        cell (x, y) is bit x % CHUNK_SIZE of chunkSolid[chunk][y % CHUNK_SIZE]
+        merged collision rectangles of every chunk, null for chunks without solid cells;
+        merging per chunk keeps a rebuild local, a platform stays split where a chunk ends
+        chunkState tells how far a chunk is made, queries can run on many threads at once and
+        the first one reaching a chunk makes it, edits must not run while a query does
+    */
+    private int[][] chunkSolid;
+    private ColliderStore[] chunkColliders;
+    private AtomicIntegerArray chunkState;
+    private static final int CHUNK_UNLOADED = 0;
+    // the solidity bits are made, the colliders are merged at the next query
+    private static final int CHUNK_SOLID = 1;
+    private static final int CHUNK_MERGED = 2;
+    // a palette entry with its animation and clock
+    private static final int ESTIMATED_TYPE_BYTES = 256;
+    // what an edit changed in a cell, see writeCell
+    private static final int CELL_CHANGED = 1;
+    private static final int SOLID_CHANGED = 2;
+    // a type the new palette dropped, see applyChanges
+    private static final short DROPPED_TYPE = -2;
+    private int chunksX;
+    private int chunksY;
+
+    /*
+        sprites come from a shared cache, the animation of a palette entry is acquired the first
+        time a cell of the type is drawn and released by dispose
+    */
+    private TextureCache textures;
+    private boolean ownsTextures;
+
+    /*
+        static geometry: the cells with a single frame are baked into a SpriteCache, one slot
+        per chunk of CHUNK_SIZE x CHUNK_SIZE cells, and drawn with one call per visible chunk
+        a chunk is baked the first time it's visible and again only after its cells change,
+        animated cells are still drawn through the SpriteBatch
+        the slots are recycled by the pool, staticCacheGeneration is the pool generation
+        the slots in chunkCacheIds belong to; a pool shared with other maps gets the slots back on dispose
+    */
+    private SpriteCachePool staticCache;
+    private boolean ownsStaticCache;
+    private int staticCacheGeneration;
+    private int[] chunkCacheIds;
+    private int[] chunkStaticCount;
+    private boolean[] chunkRenderDirty;
+
+    // cells with the same sprites share one Animation and one clock
+    private AnimationGroups animationGroups = new AnimationGroups();
+
+    // visible area of the last culled frame, reused to avoid an allocation per frame
+    private final Rectangle visibleArea = new Rectangle();
 
     /*
         Requires a .json file that contains every tile content
+        a cell with no sprites is empty, a cell can be made walk-through with "solid": false
     */
     public TileMap(String jsonFile) {
-        Json json = new Json();
-        JsonValue mapData = json.fromJson(null, Gdx.files.internal(jsonFile));
+        this(jsonFile, new TextureCache());
+        ownsTextures = true;
+    }
+
+    /*
+        same as above, the sprites are loaded through the given cache so a file used by many
+        cells, or by other maps of the same cache, is uploaded once
+        the binary map compiled at build time is read instead of the JSON when it's shipped
+    */
+    public TileMap(String jsonFile, TextureCache textures) {
+        this(TileMapFormat.read(Gdx.files.internal(jsonFile)), textures);
+    }
+
+    /*
+        builds the map from a palette and a grid of type ids, cells of the same type
+        share one Animation, loaded through the given cache; the grid is read in place
+        and must not change while the map uses it
+    */
+    public TileMap(TileMapFormat.MapData data, TextureCache textures) {
+        this(data, 0, 0, data.width, data.height, textures, new AnimationGroups(), null);
+    }
+
+    /*
+        builds only the cells between (fromX, fromY) included and (fromX + width, fromY + height) excluded,
+        the map keeps the world coordinates of those cells; maps sharing the animation groups
+        and the cache play their animations in sync
+        the static cells are baked in staticCache, shared with other maps, or in a cache of the map when it's null
+    */
+    public TileMap(TileMapFormat.MapData data, int fromX, int fromY, int width, int height, TextureCache textures,
+            AnimationGroups animationGroups, SpriteCachePool staticCache) {
+        this.textures = textures;
+        this.animationGroups = animationGroups;
+        this.staticCache = staticCache;
+        mapWidth = Math.max(Math.min(width, data.width - fromX), 0);
+        mapHeight = Math.max(Math.min(height, data.height - fromY), 0);
+        tileWidth = data.tileWidth;
+        tileHeight = data.tileHeight;
+        originX = fromX * tileWidth;
+        originY = fromY * tileHeight;
+        source = data;
+        sourceX = fromX;
+        sourceY = fromY;
+
+        initCells();
+
+        // the map shares the ids of the data, only the types drawn by the region load their sprites
+        for (TileType type : data.palette) {
+            typeIds.put(type, (short) palette.size());
+            palette.add(type);
+            paletteAnimations.add(null);
+            paletteGroups.add(null);
+        }
+    }
+
+    // opens a map written by TileMapFormat.writeBinary, the file is memory mapped when it's on disk
+    public static TileMap loadBinary(String binaryFile, TextureCache textures) {
+        return new TileMap(TileMapFormat.readBinary(Gdx.files.internal(binaryFile)), textures);
+    }
+
+    public static TileMap loadBinary(String binaryFile) {
+        TileMap map = loadBinary(binaryFile, new TextureCache());
+        map.ownsTextures = true;
+        return map;
+    }
+
+    // returns the palette id of the type, its animation is loaded the first time it's drawn
+    private short addType(TileType type) {
+        Short id = typeIds.get(type);
+        if (id != null) {
+            return id;
+        }
+        if (palette.size() > Short.MAX_VALUE) {
+            throw new IllegalStateException("too many tile types in the map: " + palette.size());
+        }
+        id = (short) palette.size();
+        palette.add(type);
+        paletteAnimations.add(null);
+        paletteGroups.add(null);
+        typeIds.put(type, id);
+        return id;
+    }
+
+    private Animation<TextureRegion> animation(short id) {
+        Animation<TextureRegion> animation = paletteAnimations.get(id);
+        if (animation == null) {
+            TileType type = palette.get(id);
+            String[] files = new String[type.getSpriteCount()];
+            for (int i = 0; i < files.length; i++) {
+                files[i] = type.getSprite(i);
+            }
+            animation = textures.acquireAnimation(files, type.getFrameDuration());
+            paletteAnimations.set(id, animation);
+            paletteGroups.set(id, animationGroups.get(animation, Tile.LINEAR, true));
+        }
+        return animation;
+    }
+
+    private AnimationGroup group(short id) {
+        animation(id);
+        return paletteGroups.get(id);
+    }
+
+    /*
+        every sprite file used by the map, each listed once, so they can be loaded
+        with an AsyncTextureLoader before the map is built from the same cache
+    */
+    public static String[] listTextures(String jsonFile) {
+        TileType[] palette = TileMapFormat.read(Gdx.files.internal(jsonFile)).palette;
+        LinkedHashSet<String> files = new LinkedHashSet<>();
+        for (TileType type : palette) {
+            for (int i = 0; i < type.getSpriteCount(); i++) {
+                files.add(type.getSprite(i));
+            }
+        }
+        return files.toArray(new String[0]);
+    }
+
+    /*
+        empty map with no sprites, cells can be made solid with setSolid
+    */
+    public TileMap(int mapWidth, int mapHeight, float tileWidth, float tileHeight) {
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.textures = new TextureCache();
+        this.ownsTextures = true;
+        initCells();
+    }
+
+    // only the per chunk tables are allocated, the chunks are made when they are reached
+    private void initCells() {
+        chunksX = (mapWidth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunksY = (mapHeight + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunkCells = new short[chunksX * chunksY][];
+        chunkSolid = new int[chunksX * chunksY][];
+        chunkColliders = new ColliderStore[chunksX * chunksY];
+        chunkState = new AtomicIntegerArray(chunksX * chunksY);
+        chunkCacheIds = new int[chunksX * chunksY];
+        chunkStaticCount = new int[chunksX * chunksY];
+        chunkRenderDirty = new boolean[chunksX * chunksY];
+        Arrays.fill(chunkCacheIds, -1);
+        Arrays.fill(chunkRenderDirty, true);
+    }
+
+    public int getMapWidth() {
+        return mapWidth;
+    }
+
+    public int getMapHeight() {
+        return mapHeight;
+    }
+
+    public float getTileWidth() {
+        return tileWidth;
+    }
+
+    public float getTileHeight() {
+        return tileHeight;
+    }
+
+    public float getOriginX() {
+        return originX;
+    }
+
+    public float getOriginY() {
+        return originY;
+    }
+
+    // palette id of the cell, TileMapFormat.EMPTY for empty cells and cells outside the map
+    public short getTypeId(int x, int y) {
+        if (x < 0 || y < 0 || x >= mapWidth || y >= mapHeight) {
+            return TileMapFormat.EMPTY;
+        }
+        return cell(x, y);
+    }
+
+    // the cell must be inside the map
+    private short cell(int x, int y) {
+        short[] cells = chunkCells[(y / CHUNK_SIZE) * chunksX + x / CHUNK_SIZE];
+        if (cells != null) {
+            return cells[(y % CHUNK_SIZE) * CHUNK_SIZE + x % CHUNK_SIZE];
+        }
+        return sourceCell(x, y);
+    }
+
+    // own copy of the cells of the chunk, made from the source the first time it's written
+    private short[] writableCells(int chunkX, int chunkY) {
+        int index = chunkY * chunksX + chunkX;
+        short[] cells = chunkCells[index];
+        if (cells != null) {
+            return cells;
+        }
+        cells = new short[CHUNK_SIZE * CHUNK_SIZE];
+        Arrays.fill(cells, TileMapFormat.EMPTY);
+        int fromX = chunkX * CHUNK_SIZE;
+        int fromY = chunkY * CHUNK_SIZE;
+        int toX = Math.min(fromX + CHUNK_SIZE, mapWidth);
+        int toY = Math.min(fromY + CHUNK_SIZE, mapHeight);
+        for (int y = fromY; y < toY; y++) {
+            for (int x = fromX; x < toX; x++) {
+                cells[(y - fromY) * CHUNK_SIZE + (x - fromX)] = cell(x, y);
+            }
+        }
+        chunkCells[index] = cells;
+        return cells;
+    }
+
+    // type of the cell, null when it's empty
+    public TileType getTileType(int x, int y) {
+        short id = getTypeId(x, y);
+        return id == TileMapFormat.EMPTY ? null : palette.get(id);
+    }
+
+    public TileType getPaletteType(short id) {
+        return palette.get(id);
+    }
 
-        mapWidth = mapData.getInt("width");
-        mapHeight = mapData.getInt("height");
+    public int getPaletteSize() {
+        return palette.size();
+    }
 
-        map = new Tile[mapWidth][mapHeight];
+    // cells outside the map are empty
+    public boolean isSolid(int x, int y) {
+        if (x < 0 || y < 0 || x >= mapWidth || y >= mapHeight) {
+            return false;
+        }
+        return (solidRows(x / CHUNK_SIZE, y / CHUNK_SIZE)[y % CHUNK_SIZE] & (1 << (x % CHUNK_SIZE))) != 0;
+    }
 
-        JsonValue tiles = mapData.get("tiles");
-        for (int y = 0; y < mapHeight; y++) {
-            JsonValue row = tiles.get(y);
-            for (int x = 0; x < mapWidth; x++) {
-                JsonValue tileData = row.get(x);
-                JsonValue spriteArray = tileData.get("sprites");
-                float frameDuration = tileData.getFloat("frameDuration");
-                Texture[] tileTextures = new Texture[spriteArray.size];
-                float tileWidth = 0;
-                float tileHeight = 0;
-                
-                for (int i = 0; i < spriteArray.size; i++) {
-                    JsonValue sprite = spriteArray.get(i);
-                    tileTextures[i] = new Texture(sprite.getString("file"));
-                    tileWidth = sprite.getFloat("width");
-                    tileHeight = sprite.getFloat("height");
+    // changes the solidity of a cell and merges again the colliders of its chunk
+    public void setSolid(int x, int y, boolean isSolid) {
+        if (x < 0 || y < 0 || x >= mapWidth || y >= mapHeight) {
+            throw new IndexOutOfBoundsException("cell " + x + "," + y + " outside " + mapWidth + "x" + mapHeight);
+        }
+        if (isSolid(x, y) == isSolid) {
+            return;
+        }
+        setSolidBit(x, y, isSolid);
+        collidersChanged(x / CHUNK_SIZE, y / CHUNK_SIZE);
+    }
+
+    private void setSolidBit(int x, int y, boolean isSolid) {
+        int[] rows = solidRows(x / CHUNK_SIZE, y / CHUNK_SIZE);
+        if (isSolid) {
+            rows[y % CHUNK_SIZE] |= 1 << (x % CHUNK_SIZE);
+        } else {
+            rows[y % CHUNK_SIZE] &= ~(1 << (x % CHUNK_SIZE));
+        }
+    }
+
+    // solidity bits of the chunk, made from its cells the first time they are read
+    private int[] solidRows(int chunkX, int chunkY) {
+        int index = chunkY * chunksX + chunkX;
+        if (chunkState.get(index) == CHUNK_UNLOADED) {
+            loadSolid(index, chunkX, chunkY);
+        }
+        return chunkSolid[index];
+    }
+
+    private synchronized void loadSolid(int index, int chunkX, int chunkY) {
+        if (chunkState.get(index) != CHUNK_UNLOADED) {
+            return;
+        }
+        int[] rows = new int[CHUNK_SIZE];
+        int fromX = chunkX * CHUNK_SIZE;
+        int fromY = chunkY * CHUNK_SIZE;
+        int toX = Math.min(fromX + CHUNK_SIZE, mapWidth);
+        int toY = Math.min(fromY + CHUNK_SIZE, mapHeight);
+        for (int y = fromY; y < toY; y++) {
+            for (int x = fromX; x < toX; x++) {
+                short id = cell(x, y);
+                if (id != TileMapFormat.EMPTY && palette.get(id).isSolid()) {
+                    rows[y - fromY] |= 1 << (x - fromX);
                 }
+            }
+        }
+        chunkSolid[index] = rows;
+        chunkState.set(index, CHUNK_SOLID);
+    }
+
+    /*
+        puts a tile of the given type in the cell, null empties it; a type joins the palette
+        the first time it's used and stays there until dispose
+        only the chunk of the cell is merged and baked again
+    */
+    public void setTile(int x, int y, TileType type) {
+        if (x < 0 || y < 0 || x >= mapWidth || y >= mapHeight) {
+            throw new IndexOutOfBoundsException("cell " + x + "," + y + " outside " + mapWidth + "x" + mapHeight);
+        }
+        int changes = writeCell(x, y, type == null ? TileMapFormat.EMPTY : addType(type));
+        if (changes != 0) {
+            chunkChanged(x / CHUNK_SIZE, y / CHUNK_SIZE, changes);
+        }
+    }
+
+    public void removeTile(int x, int y) {
+        setTile(x, y, null);
+    }
 
-                Animation<Texture> tileAnimation = new Animation<>(frameDuration, tileTextures);
-                map[x][y] = new Tile(new Rectangle(x * tileWidth, y * tileHeight, tileWidth, tileHeight), tileAnimation);
+    /*
+        puts a tile of the given type in every cell between (x, y) included and (x + width, y + height)
+        excluded, null empties them; the area is clipped to the map and every chunk it touches
+        is merged and baked again once, however many of its cells changed
+    */
+    public void fillRect(int x, int y, int width, int height, TileType type) {
+        int fromX = Math.max(x, 0);
+        int fromY = Math.max(y, 0);
+        int toX = Math.min(x + width, mapWidth);
+        int toY = Math.min(y + height, mapHeight);
+        if (fromX >= toX || fromY >= toY) {
+            return;
+        }
+        short id = type == null ? TileMapFormat.EMPTY : addType(type);
+        for (int chunkY = fromY / CHUNK_SIZE; chunkY <= (toY - 1) / CHUNK_SIZE; chunkY++) {
+            for (int chunkX = fromX / CHUNK_SIZE; chunkX <= (toX - 1) / CHUNK_SIZE; chunkX++) {
+                int changes = 0;
+                int cellToY = Math.min(toY, (chunkY + 1) * CHUNK_SIZE);
+                int cellToX = Math.min(toX, (chunkX + 1) * CHUNK_SIZE);
+                for (int cy = Math.max(fromY, chunkY * CHUNK_SIZE); cy < cellToY; cy++) {
+                    for (int cx = Math.max(fromX, chunkX * CHUNK_SIZE); cx < cellToX; cx++) {
+                        changes |= writeCell(cx, cy, id);
+                    }
+                }
+                if (changes != 0) {
+                    chunkChanged(chunkX, chunkY, changes);
+                }
             }
         }
     }
 
+    /*
+        makes the map follow data, a new version of the map it was built from; data must have
+        the same size, returns the number of cells data changed from the version before
+        a cell changed by data takes its new type, every other cell keeps the type it has, so the
+        cells edited with setTile or fillRect keep their edit unless data changed them too
+        the palette becomes the one of data followed by the types only the kept edits still use,
+        the other dropped types leave it and release their sprites, the types in both keep their
+        animation; only the chunks with a cell whose type changed are merged and baked again
+    */
+    public int applyChanges(TileMapFormat.MapData data) {
+        if (data.width != mapWidth || data.height != mapHeight || data.tileWidth != tileWidth || data.tileHeight != tileHeight) {
+            throw new IllegalArgumentException("map size changed from " + mapWidth + "x" + mapHeight + " to " + data.width + "x" + data.height);
+        }
+        // first id in data of every type of data, so equal types compare by id
+        HashMap<TileType, Short> dataIds = new HashMap<>();
+        for (int i = data.palette.length - 1; i >= 0; i--) {
+            dataIds.put(data.palette[i], (short) i);
+        }
+        short[] firstIds = new short[data.palette.length];
+        for (int i = 0; i < firstIds.length; i++) {
+            firstIds[i] = dataIds.get(data.palette[i]);
+        }
+        // id in the new palette of every type of the current one, DROPPED_TYPE until a kept edit keeps it
+        short[] newIds = new short[palette.size()];
+        for (int id = 0; id < newIds.length; id++) {
+            Short dataId = dataIds.get(palette.get(id));
+            newIds[id] = dataId == null ? DROPPED_TYPE : dataId;
+        }
+        ArrayList<TileType> keptTypes = new ArrayList<>();
+
+        // the chunks are only marked once every cell is read, a map with too many types is left as it was
+        boolean[] typeChanged = new boolean[chunksX * chunksY];
+        short[][] newCells = new short[chunksX * chunksY][];
+        short[] cells = null;
+        int changed = 0;
+        for (int chunkY = 0; chunkY < chunksY; chunkY++) {
+            for (int chunkX = 0; chunkX < chunksX; chunkX++) {
+                int index = chunkY * chunksX + chunkX;
+                if (cells == null) {
+                    cells = new short[CHUNK_SIZE * CHUNK_SIZE];
+                }
+                Arrays.fill(cells, TileMapFormat.EMPTY);
+                boolean keepsEdits = false;
+                int toY = Math.min((chunkY + 1) * CHUNK_SIZE, mapHeight);
+                int toX = Math.min((chunkX + 1) * CHUNK_SIZE, mapWidth);
+                for (int y = chunkY * CHUNK_SIZE; y < toY; y++) {
+                    for (int x = chunkX * CHUNK_SIZE; x < toX; x++) {
+                        short id = data.getTypeId(x, y);
+                        short dataId = id == TileMapFormat.EMPTY ? TileMapFormat.EMPTY : firstIds[id];
+                        short current = cell(x, y);
+                        short currentId = current == TileMapFormat.EMPTY ? TileMapFormat.EMPTY : newIds[current];
+                        short sourceCell = sourceCell(x, y);
+                        short sourceId = sourceCell == TileMapFormat.EMPTY ? TileMapFormat.EMPTY : newIds[sourceCell];
+                        int cell = (y % CHUNK_SIZE) * CHUNK_SIZE + x % CHUNK_SIZE;
+                        if (sourceId != dataId) {
+                            // data changed the cell, a type data dropped is never equal to its new one
+                            changed++;
+                            cells[cell] = id;
+                            if (currentId != dataId) {
+                                typeChanged[index] = true;
+                            }
+                        } else if (currentId != dataId) {
+                            // an edit data didn't touch
+                            if (currentId == DROPPED_TYPE) {
+                                currentId = keepType(current, data.palette.length, newIds, keptTypes);
+                            }
+                            cells[cell] = currentId;
+                            keepsEdits = true;
+                        } else {
+                            cells[cell] = id;
+                        }
+                    }
+                }
+                // a chunk whose cells are all the ones of data reads them in place
+                if (keepsEdits) {
+                    newCells[index] = cells;
+                    cells = null;
+                }
+            }
+        }
+
+        ArrayList<Animation<TextureRegion>> animations = new ArrayList<>();
+        ArrayList<AnimationGroup> groups = new ArrayList<>();
+        for (int i = 0; i < data.palette.length + keptTypes.size(); i++) {
+            animations.add(null);
+            groups.add(null);
+        }
+        for (int id = 0; id < newIds.length; id++) {
+            Animation<TextureRegion> animation = paletteAnimations.get(id);
+            if (animation == null) {
+                continue;
+            }
+            if (newIds[id] != DROPPED_TYPE && animations.get(newIds[id]) == null) {
+                animations.set(newIds[id], animation);
+                groups.set(newIds[id], paletteGroups.get(id));
+            } else {
+                animationGroups.release(paletteGroups.get(id));
+                textures.releaseAnimation(animation);
+            }
+        }
+        palette.clear();
+        paletteAnimations.clear();
+        paletteGroups.clear();
+        typeIds.clear();
+        for (TileType type : data.palette) {
+            typeIds.put(type, (short) palette.size());
+            palette.add(type);
+        }
+        for (TileType type : keptTypes) {
+            typeIds.put(type, (short) palette.size());
+            palette.add(type);
+        }
+        paletteAnimations.addAll(animations);
+        paletteGroups.addAll(groups);
+
+        source = data;
+        sourceX = 0;
+        sourceY = 0;
+        chunkCells = newCells;
+        for (int index = 0; index < typeChanged.length; index++) {
+            if (typeChanged[index]) {
+                // the solidity bits are made again from the new cells, then the colliders
+                chunkState.set(index, CHUNK_UNLOADED);
+                chunkRenderDirty[index] = true;
+            }
+        }
+        return changed;
+    }
+
+    // cell of the map data the map was last built or updated from, EMPTY for a map made without data
+    private short sourceCell(int x, int y) {
+        if (source == null) {
+            return TileMapFormat.EMPTY;
+        }
+        return source.getTypeId(sourceX + x, sourceY + y);
+    }
+
+    // puts a type dropped by the new data after the types of data, a kept edit still uses it
+    private short keepType(short id, int dataTypes, short[] newIds, ArrayList<TileType> keptTypes) {
+        if (dataTypes + keptTypes.size() > Short.MAX_VALUE) {
+            throw new IllegalStateException("too many tile types in the map: " + (dataTypes + keptTypes.size() + 1));
+        }
+        newIds[id] = (short) (dataTypes + keptTypes.size());
+        keptTypes.add(palette.get(id));
+        return newIds[id];
+    }
+
+    private int writeCell(int x, int y, short id) {
+        if (cell(x, y) == id) {
+            return 0;
+        }
+        // the bits are made from the old cells before the cell is written
+        boolean wasSolid = isSolid(x, y);
+        writableCells(x / CHUNK_SIZE, y / CHUNK_SIZE)[(y % CHUNK_SIZE) * CHUNK_SIZE + x % CHUNK_SIZE] = id;
+        boolean isSolid = id != TileMapFormat.EMPTY && palette.get(id).isSolid();
+        if (wasSolid == isSolid) {
+            return CELL_CHANGED;
+        }
+        setSolidBit(x, y, isSolid);
+        return CELL_CHANGED | SOLID_CHANGED;
+    }
+
+    /*
+        the colliders are merged again only when the solidity changed, at the next query reaching
+        the chunk, the sprites are baked at the next render
+    */
+    private void chunkChanged(int chunkX, int chunkY, int changes) {
+        if ((changes & SOLID_CHANGED) != 0) {
+            collidersChanged(chunkX, chunkY);
+        }
+        chunkRenderDirty[chunkY * chunksX + chunkX] = true;
+    }
+
+    private void collidersChanged(int chunkX, int chunkY) {
+        int index = chunkY * chunksX + chunkX;
+        if (chunkState.get(index) == CHUNK_MERGED) {
+            chunkState.set(index, CHUNK_SOLID);
+        }
+    }
+
+    /*
+        returns the first solid column between fromX and toX (both included) in row y, or -1
+        a whole row of a chunk is tested at once
+    */
+    public int firstSolidInRow(int y, int fromX, int toX) {
+        if (y < 0 || y >= mapHeight) {
+            return -1;
+        }
+        fromX = Math.max(fromX, 0);
+        toX = Math.min(toX, mapWidth - 1);
+        if (fromX > toX) {
+            return -1;
+        }
+        int chunkY = y / CHUNK_SIZE;
+        int row = y % CHUNK_SIZE;
+        int firstChunk = fromX / CHUNK_SIZE;
+        int lastChunk = toX / CHUNK_SIZE;
+        for (int chunkX = firstChunk; chunkX <= lastChunk; chunkX++) {
+            int bits = solidRows(chunkX, chunkY)[row];
+            if (chunkX == firstChunk) {
+                bits &= -1 << (fromX % CHUNK_SIZE);
+            }
+            if (chunkX == lastChunk) {
+                bits &= -1 >>> (CHUNK_SIZE - 1 - toX % CHUNK_SIZE);
+            }
+            if (bits != 0) {
+                return chunkX * CHUNK_SIZE + Integer.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    // column and row containing the given world coordinate, they can be outside the map
+    public int columnOf(float worldX) {
+        return (int) Math.floor((worldX - originX) / tileWidth);
+    }
+
+    public int rowOf(float worldY) {
+        return (int) Math.floor((worldY - originY) / tileHeight);
+    }
+
+    // merged colliders of the chunk, merged again when its solidity changed since the last query
+    private ColliderStore colliders(int chunkX, int chunkY) {
+        int index = chunkY * chunksX + chunkX;
+        if (chunkState.get(index) != CHUNK_MERGED) {
+            mergeChunk(index, chunkX, chunkY);
+        }
+        return chunkColliders[index];
+    }
+
+    private synchronized void mergeChunk(int index, int chunkX, int chunkY) {
+        if (chunkState.get(index) == CHUNK_MERGED) {
+            return;
+        }
+        ColliderStore colliders = chunkColliders[index];
+        if (colliders == null) {
+            colliders = new ColliderStore(4);
+        }
+        colliders.clear();
+        int fromX = chunkX * CHUNK_SIZE;
+        int fromY = chunkY * CHUNK_SIZE;
+        ColliderMerger.merge(this, fromX, fromY, fromX + CHUNK_SIZE, fromY + CHUNK_SIZE, colliders);
+        chunkColliders[index] = colliders.size() > 0 ? colliders : null;
+        chunkState.set(index, CHUNK_MERGED);
+    }
+
+    /*
+        rough heap size of what the map made so far: chunk tables, copied cells, solidity bits,
+        palette entries with their animation and merged colliders
+        the cells read in place from the map data and the textures in the shared cache are not counted
+    */
+    public long getEstimatedBytes() {
+        long bytes = 32L + 24L * chunkState.length();
+        for (int i = 0; i < chunkState.length(); i++) {
+            if (chunkCells[i] != null) {
+                bytes += 2L * CHUNK_SIZE * CHUNK_SIZE;
+            }
+            if (chunkSolid[i] != null) {
+                bytes += 4L * CHUNK_SIZE;
+            }
+        }
+        for (int i = 0; i < paletteAnimations.size(); i++) {
+            if (paletteAnimations.get(i) != null) {
+                bytes += ESTIMATED_TYPE_BYTES;
+            }
+        }
+        return bytes + 16L * getMergedColliderCount();
+    }
+
+    // number of merged collision rectangles of the chunks merged so far
+    public int getMergedColliderCount() {
+        int count = 0;
+        for (ColliderStore colliders : chunkColliders) {
+            if (colliders != null) {
+                count += colliders.size();
+            }
+        }
+        return count;
+    }
+
+    // true when the colliders of the chunk are merged and up to date, read by the tests
+    boolean isChunkMerged(int chunkX, int chunkY) {
+        return chunkState.get(chunkY * chunksX + chunkX) == CHUNK_MERGED;
+    }
+
+    // true when the chunk is baked again at the next render, read by the tests
+    boolean isChunkRenderDirty(int chunkX, int chunkY) {
+        return chunkRenderDirty[chunkY * chunksX + chunkX];
+    }
+
+    /*
+        appends the merged colliders touching the area, only the chunks around the area are visited
+        a merged rectangle is reported once even when it crosses the area border
+    */
+    @Override
+    public void gatherColliders(float x, float y, float width, float height, ColliderStore out) {
+        int minChunkX = Math.max(((int) Math.ceil((x - originX) / tileWidth) - 1) / CHUNK_SIZE, 0);
+        int maxChunkX = Math.min(columnOf(x + width) / CHUNK_SIZE, chunksX - 1);
+        int minChunkY = Math.max(((int) Math.ceil((y - originY) / tileHeight) - 1) / CHUNK_SIZE, 0);
+        int maxChunkY = Math.min(rowOf(y + height) / CHUNK_SIZE, chunksY - 1);
+        for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+            for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+                ColliderStore colliders = colliders(chunkX, chunkY);
+                if (colliders != null) {
+                    colliders.gatherColliders(x, y, width, height, out);
+                }
+            }
+        }
+    }
+
+    // appends the bounds of every single solid cell touching the area, only those cells are read
+    public void gatherCellColliders(float x, float y, float width, float height, ColliderStore out) {
+        // cells whose right or top edge lies exactly on the area border are touching it too
+        int minX = (int) Math.ceil((x - originX) / tileWidth) - 1;
+        int maxX = columnOf(x + width);
+        int minY = Math.max((int) Math.ceil((y - originY) / tileHeight) - 1, 0);
+        int maxY = Math.min(rowOf(y + height), mapHeight - 1);
+        for (int cy = minY; cy <= maxY; cy++) {
+            int cx = firstSolidInRow(cy, minX, maxX);
+            while (cx >= 0) {
+                out.add(originX + cx * tileWidth, originY + cy * tileHeight, tileWidth, tileHeight);
+                cx = cx < maxX ? firstSolidInRow(cy, cx + 1, maxX) : -1;
+            }
+        }
+    }
+
+    // releases the animations and sprites of the map, the cache is disposed too when the map created it
+    @Override
+    public void dispose() {
+        for (int i = 0; i < paletteGroups.size(); i++) {
+            if (paletteGroups.get(i) != null) {
+                animationGroups.release(paletteGroups.get(i));
+            }
+        }
+        paletteGroups.clear();
+        if (staticCache != null) {
+            checkStaticCache();
+            if (ownsStaticCache) {
+                staticCache.dispose();
+            } else {
+                for (int i = 0; i < chunkCacheIds.length; i++) {
+                    if (chunkCacheIds[i] >= 0) {
+                        staticCache.freeSlot(chunkCacheIds[i]);
+                    }
+                }
+            }
+            staticCache = null;
+            Arrays.fill(chunkCacheIds, -1);
+        }
+        if (textures == null) {
+            return;
+        }
+        for (int i = 0; i < paletteAnimations.size(); i++) {
+            if (paletteAnimations.get(i) != null) {
+                textures.releaseAnimation(paletteAnimations.get(i));
+            }
+        }
+        paletteAnimations.clear();
+        palette.clear();
+        typeIds.clear();
+        source = null;
+        Arrays.fill(chunkCells, null);
+        if (ownsTextures) {
+            textures.dispose();
+        }
+        textures = null;
+    }
+
     public void render(SpriteBatch batch) {
-        for (int x = 0; x < mapWidth; x++) {
-            for (int y = 0; y < mapHeight; y++) {
-                map[x][y].renderSprite(batch,Tile.LINEAR,true);
+        render(batch, 0, 0, mapWidth - 1, mapHeight - 1);
+    }
+
+    /*
+        draws the cells seen by the camera, plus CameraCulling.DEFAULT_MARGIN around them
+        the static cells are drawn from the SpriteCache, so a batch that is drawing is
+        flushed and begun again around them
+    */
+    public void render(SpriteBatch batch, OrthographicCamera camera) {
+        boolean drawing = batch.isDrawing();
+        if (drawing) {
+            batch.end();
+        }
+        renderStatic(camera);
+        if (drawing) {
+            batch.begin();
+        }
+        renderAnimated(batch, camera);
+    }
+
+    // draws the baked static cells of the visible chunks, must be called outside batch.begin/end
+    public void renderStatic(OrthographicCamera camera) {
+        CameraCulling.visibleArea(camera, visibleArea);
+        int fromX = Math.max(columnOf(visibleArea.x) / CHUNK_SIZE, 0);
+        int fromY = Math.max(rowOf(visibleArea.y) / CHUNK_SIZE, 0);
+        int toX = Math.min(columnOf(visibleArea.x + visibleArea.width) / CHUNK_SIZE, chunksX - 1);
+        int toY = Math.min(rowOf(visibleArea.y + visibleArea.height) / CHUNK_SIZE, chunksY - 1);
+        if (fromX > toX || fromY > toY) {
+            return;
+        }
+
+        // a full cache is cleared during the pass, then the chunks baked before are baked again
+        for (int pass = 0; pass < 2; pass++) {
+            checkStaticCache();
+            int generation = staticCacheGeneration;
+            for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+                for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                    if (chunkRenderDirty[chunkY * chunksX + chunkX]) {
+                        bakeChunk(chunkX, chunkY);
+                    }
+                }
+            }
+            if (generation == staticCacheGeneration) {
+                break;
             }
         }
+        SpriteCache cache = staticCache == null ? null : staticCache.getCache();
+        if (cache == null) {
+            return;
+        }
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        cache.setProjectionMatrix(camera.combined);
+        cache.begin();
+        for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+            for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+                int index = chunkY * chunksX + chunkX;
+                if (chunkStaticCount[index] > 0) {
+                    cache.draw(chunkCacheIds[index]);
+                }
+            }
+        }
+        cache.end();
+    }
+
+    // the slots are lost when the pool clears the cache, every chunk is baked again
+    private void checkStaticCache() {
+        if (staticCache == null || staticCache.getGeneration() == staticCacheGeneration) {
+            return;
+        }
+        staticCacheGeneration = staticCache.getGeneration();
+        Arrays.fill(chunkCacheIds, -1);
+        Arrays.fill(chunkStaticCount, 0);
+        Arrays.fill(chunkRenderDirty, true);
+    }
+
+    // draws the visible cells that are animated, the static ones are left to renderStatic
+    public void renderAnimated(SpriteBatch batch, OrthographicCamera camera) {
+        CameraCulling.visibleArea(camera, visibleArea);
+        int fromX = Math.max(columnOf(visibleArea.x), 0);
+        int fromY = Math.max(rowOf(visibleArea.y), 0);
+        int toX = Math.min(columnOf(visibleArea.x + visibleArea.width), mapWidth - 1);
+        int toY = Math.min(rowOf(visibleArea.y + visibleArea.height), mapHeight - 1);
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                short id = cell(x, y);
+                if (id != TileMapFormat.EMPTY && !isStatic(id)) {
+                    drawCell(batch, x, y, id);
+                }
+            }
+        }
+    }
+
+    /*
+        bakes the static cells of the chunk in its slot, the slot is kept while the cells fit,
+        otherwise it goes back to the pool and the chunk takes a slot that fits; a chunk left
+        with no static cells gives its slot back
+    */
+    private void bakeChunk(int chunkX, int chunkY) {
+        int index = chunkY * chunksX + chunkX;
+        int fromX = chunkX * CHUNK_SIZE;
+        int fromY = chunkY * CHUNK_SIZE;
+        int toX = Math.min(fromX + CHUNK_SIZE, mapWidth);
+        int toY = Math.min(fromY + CHUNK_SIZE, mapHeight);
+
+        int count = 0;
+        for (int y = fromY; y < toY; y++) {
+            for (int x = fromX; x < toX; x++) {
+                short id = cell(x, y);
+                if (id != TileMapFormat.EMPTY && isStatic(id)) {
+                    count++;
+                }
+            }
+        }
+        if (count == 0) {
+            if (chunkCacheIds[index] >= 0) {
+                staticCache.freeSlot(chunkCacheIds[index]);
+                chunkCacheIds[index] = -1;
+            }
+            chunkStaticCount[index] = 0;
+            chunkRenderDirty[index] = false;
+            return;
+        }
+
+        if (staticCache == null) {
+            staticCache = new SpriteCachePool();
+            ownsStaticCache = true;
+            staticCacheGeneration = staticCache.getGeneration();
+        }
+        staticCache.beginSlot(chunkCacheIds[index], count);
+        // the pool was full and dropped every slot, this chunk is baked in the new generation
+        checkStaticCache();
+        for (int y = fromY; y < toY; y++) {
+            for (int x = fromX; x < toX; x++) {
+                short id = cell(x, y);
+                if (id != TileMapFormat.EMPTY && isStatic(id)) {
+                    TileType type = palette.get(id);
+                    staticCache.add(animation(id).getKeyFrame(0),
+                        originX + x * tileWidth, originY + y * tileHeight, type.getWidth(), type.getHeight());
+                }
+            }
+        }
+        chunkCacheIds[index] = staticCache.endSlot();
+        chunkStaticCount[index] = count;
+        chunkRenderDirty[index] = false;
+    }
+
+    /*
+        advances the animation clocks of the map, one per distinct animation, visible or not
+        the cells read their frame from them when they are drawn
+    */
+    public void update(float deltaTime) {
+        animationGroups.update(deltaTime);
+    }
+
+    // draws the cells between (fromX, fromY) and (toX, toY), both included
+    private void render(SpriteBatch batch, int fromX, int fromY, int toX, int toY) {
+        fromX = Math.max(fromX, 0);
+        fromY = Math.max(fromY, 0);
+        toX = Math.min(toX, mapWidth - 1);
+        toY = Math.min(toY, mapHeight - 1);
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                short id = cell(x, y);
+                if (id != TileMapFormat.EMPTY) {
+                    drawCell(batch, x, y, id);
+                }
+            }
+        }
+    }
+
+    // a type with a single frame never changes, its cells can be baked once
+    private boolean isStatic(short id) {
+        return palette.get(id).getSpriteCount() == 1;
+    }
+
+    // draws the current frame of the type clock at the cell position
+    private void drawCell(SpriteBatch batch, int x, int y, short id) {
+        TileType type = palette.get(id);
+        batch.draw(group(id).getKeyFrame(), originX + x * tileWidth, originY + y * tileHeight, type.getWidth(), type.getHeight());
     }
 }
@@ -0,0 +1,313 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.StreamUtils;
+
+/*
+    Reading and writing of tile maps, the JSON authoring format and the compact binary format
+    binary layout, big endian:
+        int magic "TMAP", short version, long checksum of the JSON it was compiled from
+        int mapWidth, int mapHeight, float tileWidth, float tileHeight
+        unsigned short paletteSize, then for every TileType:
+            float frameDuration, byte solid, float width, float height,
+            unsigned short spriteCount, then every sprite file as unsigned short length + UTF-8 bytes
+        mapWidth * mapHeight short type ids, row after row, EMPTY for cells with no tile
+    a binary file on disk is memory mapped and the grid is read in place, it's only scanned once
+    to check its ids against the palette
+*/
+public final class TileMapFormat {
+    public static final int MAGIC = 0x544D4150;
+    public static final short VERSION = 2;
+    public static final short EMPTY = -1;
+    // checksum of a binary map that wasn't compiled from a JSON, it matches no JSON
+    public static final long NO_SOURCE = -1;
+    // extension of the maps compiled at build time by the compileAssets task
+    public static final String BINARY_EXTENSION = "tmap";
+    // type ids are shorts, so a palette has at most Short.MAX_VALUE + 1 types
+    public static final int MAX_PALETTE_SIZE = Short.MAX_VALUE + 1;
+    // sprite counts and sprite path lengths are written as unsigned shorts
+    private static final int MAX_UNSIGNED_SHORT = 0xffff;
+
+    // a map as stored in a file, cell (x, y) has the type palette[grid.get(y * width + x)]
+    public static class MapData {
+        public final int width;
+        public final int height;
+        public final float tileWidth;
+        public final float tileHeight;
+        public final TileType[] palette;
+        public final ShortBuffer grid;
+
+        public MapData(int width, int height, float tileWidth, float tileHeight, TileType[] palette, ShortBuffer grid) {
+            this.width = width;
+            this.height = height;
+            this.tileWidth = tileWidth;
+            this.tileHeight = tileHeight;
+            this.palette = palette;
+            this.grid = grid;
+        }
+
+        public short getTypeId(int x, int y) {
+            return grid.get(y * width + x);
+        }
+    }
+
+    private TileMapFormat() {}
+
+    /*
+        parses the JSON authoring format, equal cells share the same palette entry
+        a cell with no sprites is empty, the first tile defines the size of every cell
+    */
+    public static MapData readJson(FileHandle file) {
+        JsonValue mapData = new Json().fromJson(null, file);
+        int width = mapData.getInt("width");
+        int height = mapData.getInt("height");
+        float tileWidth = 0;
+        float tileHeight = 0;
+
+        ArrayList<TileType> palette = new ArrayList<>();
+        HashMap<TileType, Short> ids = new HashMap<>();
+        ShortBuffer grid = ShortBuffer.allocate(width * height);
+
+        JsonValue tiles = mapData.get("tiles");
+        for (int y = 0; y < height; y++) {
+            JsonValue row = tiles.get(y);
+            for (int x = 0; x < width; x++) {
+                JsonValue tileData = row.get(x);
+                JsonValue spriteArray = tileData == null ? null : tileData.get("sprites");
+                if (spriteArray == null || spriteArray.size == 0) {
+                    grid.put(y * width + x, EMPTY);
+                    continue;
+                }
+                String[] sprites = new String[spriteArray.size];
+                float cellWidth = 0;
+                float cellHeight = 0;
+                for (int i = 0; i < spriteArray.size; i++) {
+                    JsonValue sprite = spriteArray.get(i);
+                    sprites[i] = sprite.getString("file");
+                    cellWidth = sprite.getFloat("width");
+                    cellHeight = sprite.getFloat("height");
+                }
+                if (tileWidth == 0) {
+                    tileWidth = cellWidth;
+                    tileHeight = cellHeight;
+                }
+
+                TileType type = new TileType(sprites, tileData.getFloat("frameDuration"), tileData.getBoolean("solid", true), cellWidth, cellHeight);
+                Short id = ids.get(type);
+                if (id == null) {
+                    if (palette.size() == MAX_PALETTE_SIZE) {
+                        throw new GdxRuntimeException("too many tile types in " + file);
+                    }
+                    id = (short) palette.size();
+                    palette.add(type);
+                    ids.put(type, id);
+                }
+                grid.put(y * width + x, id);
+            }
+        }
+        return new MapData(width, height, tileWidth, tileHeight, palette.toArray(new TileType[0]), grid);
+    }
+
+    // reads a binary map, see map for how the file is accessed
+    public static MapData readBinary(FileHandle file) {
+        ByteBuffer buffer = map(file);
+        if (buffer.getInt() != MAGIC) {
+            throw new GdxRuntimeException("not a binary tile map: " + file);
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new GdxRuntimeException("unsupported tile map version " + version + ": " + file);
+        }
+        buffer.getLong();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        float tileWidth = buffer.getFloat();
+        float tileHeight = buffer.getFloat();
+        if (width < 0 || height < 0) {
+            throw new GdxRuntimeException("invalid tile map size " + width + "x" + height + ": " + file);
+        }
+
+        TileType[] palette = new TileType[buffer.getShort() & 0xffff];
+        if (palette.length > MAX_PALETTE_SIZE) {
+            throw new GdxRuntimeException("too many tile types (" + palette.length + "): " + file);
+        }
+        for (int i = 0; i < palette.length; i++) {
+            float frameDuration = buffer.getFloat();
+            boolean solid = buffer.get() != 0;
+            float typeWidth = buffer.getFloat();
+            float typeHeight = buffer.getFloat();
+            String[] sprites = new String[buffer.getShort() & 0xffff];
+            for (int s = 0; s < sprites.length; s++) {
+                byte[] bytes = new byte[buffer.getShort() & 0xffff];
+                buffer.get(bytes);
+                sprites[s] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            palette[i] = new TileType(sprites, frameDuration, solid, typeWidth, typeHeight);
+        }
+
+        // the grid stays a view over the file
+        ShortBuffer grid = buffer.slice().asShortBuffer();
+        if (grid.remaining() < (long) width * height) {
+            throw new GdxRuntimeException("truncated tile map: " + file);
+        }
+        // a corrupted id would only fail when the cell is first reached, it's caught here instead
+        int cells = width * height;
+        for (int i = 0; i < cells; i++) {
+            short id = grid.get(i);
+            if (id != EMPTY && (id < 0 || id >= palette.length)) {
+                throw new GdxRuntimeException("cell " + (i % width) + "," + (i / width) + " has type " + id
+                    + " but the palette has " + palette.length + " types: " + file);
+            }
+        }
+        return new MapData(width, height, tileWidth, tileHeight, palette, grid);
+    }
+
+    public static void writeBinary(MapData data, FileHandle file) {
+        writeBinary(data, file, NO_SOURCE);
+    }
+
+    // sourceChecksum is the checksum of the JSON the map is compiled from, see checksum
+    public static void writeBinary(MapData data, FileHandle file, long sourceChecksum) {
+        checkLimits(data, file);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file.write(false)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(sourceChecksum);
+            out.writeInt(data.width);
+            out.writeInt(data.height);
+            out.writeFloat(data.tileWidth);
+            out.writeFloat(data.tileHeight);
+
+            out.writeShort(data.palette.length);
+            for (TileType type : data.palette) {
+                out.writeFloat(type.getFrameDuration());
+                out.writeByte(type.isSolid() ? 1 : 0);
+                out.writeFloat(type.getWidth());
+                out.writeFloat(type.getHeight());
+                out.writeShort(type.getSpriteCount());
+                for (int s = 0; s < type.getSpriteCount(); s++) {
+                    byte[] bytes = type.getSprite(s).getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(bytes.length);
+                    out.write(bytes);
+                }
+            }
+
+            int cells = data.width * data.height;
+            for (int i = 0; i < cells; i++) {
+                out.writeShort(data.grid.get(i));
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("couldn't write tile map: " + file, e);
+        }
+    }
+
+    // the counts the format can't hold are refused before anything is written
+    private static void checkLimits(MapData data, FileHandle file) {
+        if (data.palette.length > MAX_PALETTE_SIZE) {
+            throw new GdxRuntimeException("too many tile types (" + data.palette.length + ") for " + file);
+        }
+        for (TileType type : data.palette) {
+            if (type.getSpriteCount() > MAX_UNSIGNED_SHORT) {
+                throw new GdxRuntimeException("too many sprites (" + type.getSpriteCount() + ") in a tile type of " + file);
+            }
+            for (int s = 0; s < type.getSpriteCount(); s++) {
+                if (type.getSprite(s).getBytes(StandardCharsets.UTF_8).length > MAX_UNSIGNED_SHORT) {
+                    throw new GdxRuntimeException("sprite path too long in " + file + ": " + type.getSprite(s));
+                }
+            }
+        }
+    }
+
+    // converts a JSON map into the binary format
+    public static void compile(FileHandle jsonFile, FileHandle binaryFile) {
+        writeBinary(readJson(jsonFile), binaryFile, checksum(jsonFile));
+    }
+
+    // CRC32 of the bytes of the file, never NO_SOURCE
+    public static long checksum(FileHandle file) {
+        CRC32 crc = new CRC32();
+        crc.update(file.readBytes());
+        return crc.getValue();
+    }
+
+    // the compiled sibling of an authored map, "maps/level.json" is compiled to "maps/level.tmap"
+    public static FileHandle compiledFile(FileHandle jsonFile) {
+        return jsonFile.sibling(jsonFile.nameWithoutExtension() + "." + BINARY_EXTENSION);
+    }
+
+    /*
+        reads the map compiled at build time when it's shipped next to the JSON and is up to date,
+        the JSON is parsed only when there is no compiled map or it's stale, see isCurrent
+    */
+    public static MapData read(FileHandle jsonFile) {
+        FileHandle compiled = compiledFile(jsonFile);
+        if (compiled.exists() && isCurrent(compiled, jsonFile)) {
+            return readBinary(compiled);
+        }
+        return readJson(jsonFile);
+    }
+
+    /*
+        true when the compiled map was compiled from the JSON as it is now, or from an older
+        format version it's never current
+        the JSON is only compared when it's a file on disk, like assets/ edited during development
+        while the compiled map comes from the last build; a JSON in the jar was compiled with it
+    */
+    public static boolean isCurrent(FileHandle compiled, FileHandle jsonFile) {
+        long sourceChecksum = readSourceChecksum(compiled);
+        if (sourceChecksum == NO_SOURCE) {
+            return !jsonFile.exists();
+        }
+        if (jsonFile.type() == Files.FileType.Classpath || !jsonFile.file().exists()) {
+            return true;
+        }
+        return sourceChecksum == checksum(jsonFile);
+    }
+
+    // checksum in the header of a binary map, NO_SOURCE when it has none or another version
+    private static long readSourceChecksum(FileHandle file) {
+        DataInputStream in = new DataInputStream(file.read());
+        try {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                return NO_SOURCE;
+            }
+            return in.readLong();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("couldn't read tile map: " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    /*
+        a file on disk is mapped read only, the pages are loaded by the OS when they are read;
+        files inside the jar or on the classpath can't be mapped and are read in memory
+    */
+    static ByteBuffer map(FileHandle file) {
+        if (file.type() != Files.FileType.Classpath && file.file().exists()) {
+            try (FileChannel channel = FileChannel.open(file.file().toPath(), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new GdxRuntimeException("couldn't map tile map: " + file, e);
+            }
+        }
+        return ByteBuffer.wrap(file.readBytes());
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.util.Arrays;
+
+/*
+    Shared description of a kind of cell: its sprite files, frame duration, solidity and size
+    a map keeps one TileType per distinct kind in its palette and the cells only refer to it
+*/
+public class TileType {
+    private final String[] sprites;
+    private final float frameDuration;
+    private final boolean solid;
+    private final float width;
+    private final float height;
+
+    public TileType(String[] sprites, float frameDuration, boolean solid, float width, float height) {
+        if (sprites == null || sprites.length == 0) {
+            throw new IllegalArgumentException("a tile type needs at least one sprite");
+        }
+        this.sprites = sprites.clone();
+        this.frameDuration = frameDuration;
+        this.solid = solid;
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getSpriteCount() {
+        return sprites.length;
+    }
+
+    public String getSprite(int index) {
+        return sprites[index];
+    }
+
+    public float getFrameDuration() {
+        return frameDuration;
+    }
+
+    public boolean isSolid() {
+        return solid;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TileType)) {
+            return false;
+        }
+        TileType type = (TileType) other;
+        return frameDuration == type.frameDuration && solid == type.solid
+            && width == type.width && height == type.height && Arrays.equals(sprites, type.sprites);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(sprites);
+        hash = 31 * hash + Float.floatToIntBits(frameDuration);
+        hash = 31 * hash + (solid ? 1 : 0);
+        hash = 31 * hash + Float.floatToIntBits(width);
+        hash = 31 * hash + Float.floatToIntBits(height);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "TileType{sprites=" + Arrays.toString(sprites) + ", frameDuration=" + frameDuration
+            + ", solid=" + solid + ", width=" + width + ", height=" + height + "}";
+    }
+}
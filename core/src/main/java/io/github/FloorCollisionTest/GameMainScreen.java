@@ -7,12 +7,20 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
+import io.github.FloorCollisionTest.Engine.AnimationGroups;
+import io.github.FloorCollisionTest.Engine.AssetWatcher;
+import io.github.FloorCollisionTest.Engine.CameraCulling;
+import io.github.FloorCollisionTest.Engine.DebugOverlay;
+import io.github.FloorCollisionTest.Engine.FixedTimestep;
+import io.github.FloorCollisionTest.Engine.MergedColliders;
 import io.github.FloorCollisionTest.Engine.Player;
+import io.github.FloorCollisionTest.Engine.PlayerContacts;
+import io.github.FloorCollisionTest.Engine.SpatialHashGrid;
+import io.github.FloorCollisionTest.Engine.TextureCache;
 import io.github.FloorCollisionTest.Engine.Tile;
 
 
@@ -21,13 +29,42 @@ public class GameMainScreen implements Screen {
     private final Main game;
     private final SpriteBatch batch;
     private final ArrayList<Tile> tiles = new ArrayList<>();
+    private final SpatialHashGrid tileGrid = new SpatialHashGrid();
+    // tiles inside the camera view, filled again every frame
+    private final ArrayList<Tile> visibleTiles = new ArrayList<>();
+    private final Rectangle visibleArea = new Rectangle();
+    // merged tiles of the grid, updated around the tiles inserted or removed later
+    private MergedColliders mergedColliders;
     private OrthographicCamera camera;
     private Viewport viewport;
     private Player player;
-    private ShapeRenderer shapeRenderer = new ShapeRenderer();
+    private final PlayerContacts contacts = new PlayerContacts();
+    private final FixedTimestep timestep = new FixedTimestep();
+    // hitboxes and contacts, toggled with F3
+    private final DebugOverlay debugOverlay = new DebugOverlay();
+    // every sheet is loaded once and shared by all the tiles drawing it
+    private final TextureCache textures;
+    // tiles with the same animation share one clock
+    private final AnimationGroups animationGroups = new AnimationGroups();
+    // sheets edited on disk are uploaded again while the game runs, only with -DhotReload=true
+    private AssetWatcher assetWatcher;
+
+    // sheets used by the screen, LoadingScreen loads them before the screen is built
+    public static final String[] TEXTURES = {
+        "./assets/PlayerAtlasSprite.png",
+        "./assets/Blocco1.png",
+        "./assets/TileTest.png",
+        "./assets/NOT_EXISTING.png"
+    };
 
     public GameMainScreen(Main game) {
+        this(game, new TextureCache());
+    }
+
+    // the screen takes ownership of the cache and disposes it with itself
+    public GameMainScreen(Main game, TextureCache textures) {
         this.game = game;
+        this.textures = textures;
         this.batch = game.batch;
 
         camera = new OrthographicCamera();
@@ -35,15 +72,30 @@ public class GameMainScreen implements Screen {
         viewport.apply();
         camera.position.set(camera.viewportWidth / 2, camera.viewportHeight / 2, 0);
 
-        player = new Player(new Rectangle(0, 100, 64, 128),Player.generateTextureFromAtlas("./assets/PlayerAtlasSprite.png", 64, 128, 0),0.4f);
+        player = new Player(new Rectangle(0, 100, 64, 128),textures.acquireFrames("./assets/PlayerAtlasSprite.png", 64, 128, 0),0.4f);
 
-        tiles.add(new Tile(new Rectangle(100, 100, 64, 64),Tile.generateTextureFromAtlas("./assets/Blocco1.png", 64, 64, 0), 0.5f));
-        tiles.add(new Tile(new Rectangle(600, 400, 64, 64),Tile.generateTextureFromAtlas("./assets/TileTest.png", 64, 64, 0), 0.5f));
-        tiles.add(new Tile(new Rectangle(800, 600, 64, 64),Tile.generateTextureFromAtlas("./assets/TileTest.png", 64, 64, 0), 0.5f));
-        tiles.add(new Tile(new Rectangle(400, 400, 64, 64),Tile.generateTextureFromAtlas("./assets/NOT_EXISTING.png", 64, 64, 0), 0.5f));
+        tiles.add(new Tile(new Rectangle(100, 100, 64, 64),textures.acquireAnimation("./assets/Blocco1.png", 64, 64, 0, 0.5f)));
+        tiles.add(new Tile(new Rectangle(600, 400, 64, 64),textures.acquireAnimation("./assets/TileTest.png", 64, 64, 0, 0.5f)));
+        tiles.add(new Tile(new Rectangle(800, 600, 64, 64),textures.acquireAnimation("./assets/TileTest.png", 64, 64, 0, 0.5f)));
+        tiles.add(new Tile(new Rectangle(400, 400, 64, 64),textures.acquireAnimation("./assets/NOT_EXISTING.png", 64, 64, 0, 0.5f)));
 
         for (int i = 0; i <= 1920; i += 64) {
-            tiles.add(new Tile(new Rectangle(i, 0, 64, 64),Tile.generateTextureFromAtlas("./assets/TileTest.png", 64, 64, 0), 0.5f));
+            tiles.add(new Tile(new Rectangle(i, 0, 64, 64),textures.acquireAnimation("./assets/TileTest.png", 64, 64, 0, 0.5f)));
+        }
+
+        // the grid indexes the static tiles
+        for (Tile tile : tiles) {
+            tileGrid.insert(tile);
+            if (tile.getAnimation() != null) {
+                tile.setAnimationGroup(animationGroups.get(tile.getAnimation(), Tile.LINEAR, true));
+            }
+        }
+        // collision runs on the merged rectangles of the grid, the floor becomes a few long colliders
+        mergedColliders = tileGrid.getMergedColliders();
+
+        if (AssetWatcher.isEnabled()) {
+            assetWatcher = new AssetWatcher(textures);
+            assetWatcher.watchTextures();
         }
 
         // player attributes
@@ -62,10 +114,47 @@ public class GameMainScreen implements Screen {
         Gdx.gl.glClearColor(0.53f, 0.81f, 0.92f, 1f);
         Gdx.gl.glClear(Gdx.gl.GL_COLOR_BUFFER_BIT);
 
-        camera.update();
+        // physics runs in fixed steps, the render frame rate only changes how many steps run
+        timestep.accumulate(delta);
+        while (timestep.step()) {
+            simulate(timestep.getStepTime());
+        }
+        float alpha = timestep.getAlpha();
+
+        // the camera follows the interpolated position the sprite is drawn at
+        player.cameraSetup(camera, Player.FOLLOW_SMOOTH, alpha);
         batch.setProjectionMatrix(camera.combined);
 
-        player.updatePosition(delta, player.getGroundHitbox(tiles),player.getTopHitbox(tiles), player.getLeftHitbox(tiles), player.getRightHitbox(tiles));
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            debugOverlay.toggle();
+        }
+
+        batch.begin();
+        player.renderSprite(batch, Player.LINEAR, true, alpha);
+        player.drawHitboxes(debugOverlay);
+        // one clock per animation, then only the tiles around the camera are drawn
+        animationGroups.update(delta);
+        visibleTiles.clear();
+        tileGrid.query(CameraCulling.visibleArea(camera, visibleArea), visibleTiles);
+        // indexed loop, the steady state frame must not allocate an iterator
+        for (int i = 0; i < visibleTiles.size(); i++) {
+            Tile tile = visibleTiles.get(i);
+            tile.renderSprite(batch, Tile.LINEAR, true);
+        }
+
+        player.drawAdiacentHitboxes(contacts, debugOverlay);
+
+        batch.end();
+        debugOverlay.flush(camera.combined);
+    }
+
+    // advances the player by one fixed step
+    private void simulate(float stepTime) {
+        player.beginStep();
+
+        // the only collision query of the step: the contacts left by the last step are resolved
+        // and filled again where this step leaves the player, for the input and the debug drawing
+        player.updatePosition(stepTime, contacts, mergedColliders);
 
         if (Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT) && Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
             player.DashLeft();
@@ -74,33 +163,17 @@ public class GameMainScreen implements Screen {
             player.DashRight();
         }
         else if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-            player.moveLeft(delta,player.getLeftHitbox(tiles));
+            player.moveLeft(stepTime,contacts);
         }
         else if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-            player.moveRight(delta,player.getRightHitbox(tiles));
+            player.moveRight(stepTime,contacts);
         }
         if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
             player.jump();
         }
         if(Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
-            player.fallFaster(delta);
+            player.fallFaster(stepTime, mergedColliders);
         }
-
-        batch.begin();
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        player.renderSprite(batch, Player.LINEAR, true);
-        player.drawHitboxes(shapeRenderer);
-        player.cameraSetup(camera,Player.FOLLOW_SMOOTH);
-        for (Tile tile : tiles) {
-            tile.updateSprite(delta);
-            tile.renderSprite(batch, Tile.LINEAR, true);
-        }
-
-        player.drawAdiacentHitboxes(tiles, shapeRenderer);
-
-        shapeRenderer.end();
-        batch.end();
     }
 
     @Override
@@ -122,5 +195,11 @@ public class GameMainScreen implements Screen {
     public void hide() {}
 
     @Override
-    public void dispose() {}
+    public void dispose() {
+        if (assetWatcher != null) {
+            assetWatcher.dispose();
+        }
+        textures.dispose();
+        debugOverlay.dispose();
+    }
 }
\ No newline at end of file
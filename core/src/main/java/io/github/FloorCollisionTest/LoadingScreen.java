@@ -0,0 +1,90 @@
+package io.github.FloorCollisionTest;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+
+import io.github.FloorCollisionTest.Engine.AsyncTextureLoader;
+import io.github.FloorCollisionTest.Engine.TextureCache;
+
+/*
+    Shows a progress bar while the textures of GameMainScreen are decoded on worker threads
+    and uploaded a few per frame, then switches to the game with the filled cache
+*/
+public class LoadingScreen implements Screen {
+
+    private final Main game;
+    private final TextureCache textures = new TextureCache();
+    private final AsyncTextureLoader loader = new AsyncTextureLoader(textures);
+    private final ShapeRenderer shapeRenderer = new ShapeRenderer();
+    // the cache is given to GameMainScreen once the loading is over, until then it's disposed with the screen
+    private boolean handedOver;
+    private boolean disposed;
+
+    public LoadingScreen(Main game) {
+        this.game = game;
+        loader.request(GameMainScreen.TEXTURES);
+    }
+
+    @Override
+    public void render(float delta) {
+        Gdx.gl.glClearColor(0.53f, 0.81f, 0.92f, 1f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        boolean finished = loader.update(AsyncTextureLoader.DEFAULT_BUDGET_MILLIS);
+
+        float width = Gdx.graphics.getWidth();
+        float height = Gdx.graphics.getHeight();
+        float barWidth = width * 0.6f;
+        float barHeight = 24f;
+        float barX = (width - barWidth) / 2;
+        float barY = (height - barHeight) / 2;
+
+        shapeRenderer.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(1, 1, 1, 1);
+        shapeRenderer.rect(barX, barY, barWidth * loader.getProgress(), barHeight);
+        shapeRenderer.end();
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        shapeRenderer.rect(barX, barY, barWidth, barHeight);
+        shapeRenderer.end();
+
+        if (finished) {
+            handedOver = true;
+            game.setScreen(new GameMainScreen(game, textures));
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {}
+
+    @Override
+    public void show() {}
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    // the screen is left once the loading is over, or when the game exits while it's loading
+    @Override
+    public void hide() {
+        dispose();
+    }
+
+    // can be called more than once, Main disposes the current screen after hiding it
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        loader.dispose();
+        shapeRenderer.dispose();
+        if (!handedOver) {
+            textures.dispose();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.FloorCollisionTest;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
 
@@ -11,7 +12,7 @@ public class Main extends Game {
     @Override
     public void create() {
         batch = new SpriteBatch();
-        setScreen(new GameMainScreen(this));
+        setScreen(new LoadingScreen(this));
     }
 
     @Override
@@ -19,8 +20,14 @@ public class Main extends Game {
         super.render();
     }
 
+    // Game only hides the current screen on exit, the screen and what it owns are disposed here
     @Override
     public void dispose() {
+        Screen current = getScreen();
         super.dispose();
+        if (current != null) {
+            current.dispose();
+        }
+        batch.dispose();
     }
 }
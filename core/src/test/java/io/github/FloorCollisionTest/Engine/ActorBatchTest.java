@@ -0,0 +1,129 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+    Stepping the actors in parallel must give exactly the results of the single threaded step,
+    after every step, over any collider source, also when the sources make their chunks or
+    merge their regions the first time the workers reach them
+*/
+public class ActorBatchTest {
+    private static final float STEP = 1f / 60f;
+    private static final int ACTORS = 500;
+    private static final int STEPS = 240;
+
+    @Test
+    public void stepParallelMatchesStep() {
+        ColliderStore colliders = new ColliderStore();
+        colliders.add(-10000, 0, 20000, 64);
+        Random random = new Random(11);
+        for (int i = 0; i < 200; i++) {
+            colliders.add(random.nextInt(8000) - 4000, 64 + random.nextInt(20) * 64, 64 * (1 + random.nextInt(4)), 64);
+        }
+        assertParallelMatchesSerial(colliders, -4000, new Random(12));
+    }
+
+    @Test
+    public void stepParallelMatchesStepOverATileMap() {
+        TileMap map = new TileMap(160, 40, 64, 64);
+        Random random = new Random(13);
+        for (int x = 0; x < map.getMapWidth(); x++) {
+            map.setSolid(x, 0, true);
+        }
+        for (int i = 0; i < 300; i++) {
+            map.setSolid(random.nextInt(map.getMapWidth()), 1 + random.nextInt(24), true);
+        }
+        assertParallelMatchesSerial(map, 1000, new Random(14));
+    }
+
+    @Test
+    public void stepParallelMatchesStepOverMergedColliders() {
+        SpatialHashGrid grid = new SpatialHashGrid();
+        Random random = new Random(15);
+        for (int x = -5120; x < 5120; x += 64) {
+            grid.insert(tile(x, 0));
+        }
+        for (int i = 0; i < 300; i++) {
+            grid.insert(tile(random.nextInt(160) * 64 - 5120, 64 + random.nextInt(24) * 64));
+        }
+        assertParallelMatchesSerial(grid.getMergedColliders(), -4000, new Random(16));
+    }
+
+    /*
+        both batches get the same actors and the same input between steps, walking, jumping,
+        dashing and fast falling, and must agree bit for bit after every step
+        the actors start between fromX and fromX + 8000
+    */
+    private static void assertParallelMatchesSerial(ColliderSource colliders, float fromX, Random random) {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ActorBatch serial = new ActorBatch(pool, 16);
+        ActorBatch parallel = new ActorBatch(pool, 16);
+        for (int i = 0; i < ACTORS; i++) {
+            float x = fromX + random.nextInt(8000);
+            float y = 64 + random.nextInt(1500);
+            serial.add(actor(x, y));
+            parallel.add(actor(x, y));
+        }
+
+        try {
+            for (int step = 0; step < STEPS; step++) {
+                // the workers run first, so they are the ones reaching chunks and regions not made yet
+                parallel.stepParallel(STEP, colliders);
+                serial.step(STEP, colliders);
+                for (int i = 0; i < ACTORS; i++) {
+                    assertSameState(serial, parallel, i, step);
+                    int action = random.nextInt(40);
+                    act(serial.getActor(i), serial.getContacts(i), action, colliders);
+                    act(parallel.getActor(i), parallel.getContacts(i), action, colliders);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void assertSameState(ActorBatch serial, ActorBatch parallel, int index, int step) {
+        Player expected = serial.getActor(index);
+        Player actual = parallel.getActor(index);
+        String actor = " of actor " + index + " at step " + step;
+        assertEquals("x" + actor, Float.floatToIntBits(expected.getX()), Float.floatToIntBits(actual.getX()));
+        assertEquals("y" + actor, Float.floatToIntBits(expected.getY()), Float.floatToIntBits(actual.getY()));
+        assertEquals("contacts" + actor, serial.getContacts(index).toString(), parallel.getContacts(index).toString());
+    }
+
+    private static void act(Player actor, PlayerContacts contacts, int action, ColliderSource colliders) {
+        if (action < 12) {
+            actor.moveLeft(STEP, contacts);
+        } else if (action < 24) {
+            actor.moveRight(STEP, contacts);
+        } else if (action < 28) {
+            actor.jump();
+        } else if (action == 28) {
+            actor.DashLeft();
+        } else if (action == 29) {
+            actor.DashRight();
+        } else if (action == 30) {
+            actor.fallFaster(STEP, colliders);
+        }
+    }
+
+    private static Player actor(float x, float y) {
+        Player actor = new Player(new Rectangle(x, y, 64, 128), new TextureRegion[] {new TextureRegion()}, 0.4f);
+        actor.setGravity(230f);
+        actor.setMovementSpeed(300f);
+        return actor;
+    }
+
+    private static Tile tile(float x, float y) {
+        return new Tile(new Rectangle(x, y, 64, 64), (Animation<TextureRegion>) null);
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+
+/*
+    A watched map gets the cells changed in its JSON, or in the binary map compiled next to it
+    when that one is current, and keeps the edits made at runtime everywhere else
+*/
+public class AssetWatcherTest {
+    private static final long TIMEOUT_MILLIS = 10000;
+    private static final TileType GRASS = new TileType(new String[] {"grass.png"}, 0.5f, true, 16, 16);
+    private static final TileType STONE = new TileType(new String[] {"stone.png"}, 0.5f, true, 16, 16);
+    private static final TileType WATER = new TileType(new String[] {"water.png"}, 0.5f, false, 16, 16);
+
+    private File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        HeadlessGdx.install();
+        folder = Files.createTempDirectory("watched").toFile();
+        folder.deleteOnExit();
+    }
+
+    @Test
+    public void aChangedJsonIsApplied() throws Exception {
+        File json = new File(folder, "level.json");
+        write(json, jsonMap("grass.png", null, null));
+        TileMap map = new TileMap(json.getPath());
+        map.setTile(2, 0, STONE);
+        AssetWatcher watcher = new AssetWatcher(new TextureCache());
+        watcher.watchMap(map, json.getPath());
+
+        try {
+            write(json, jsonMap("grass.png", "water.png", null));
+            awaitType(map, 1, WATER);
+            assertEquals(GRASS, map.getTileType(0, 0));
+            assertEquals(STONE, map.getTileType(2, 0));
+        } finally {
+            watcher.dispose();
+            map.dispose();
+        }
+    }
+
+    @Test
+    public void aCurrentCompiledMapIsReadInsteadOfTheJson() throws Exception {
+        File json = new File(folder, "level.json");
+        write(json, jsonMap("grass.png", null, null));
+        FileHandle jsonFile = new FileHandle(json);
+        FileHandle compiled = TileMapFormat.compiledFile(jsonFile);
+        TileMapFormat.compile(jsonFile, compiled);
+        compiled.file().deleteOnExit();
+        TileMap map = new TileMap(json.getPath());
+        AssetWatcher watcher = new AssetWatcher(new TextureCache());
+        watcher.watchMap(map, json.getPath());
+
+        try {
+            // a compiled map claiming the JSON as it is now, with a cell the JSON doesn't have
+            ShortBuffer grid = ShortBuffer.allocate(3);
+            grid.put(0, (short) 0).put(1, TileMapFormat.EMPTY).put(2, (short) 1);
+            TileMapFormat.MapData data = new TileMapFormat.MapData(3, 1, 16, 16, new TileType[] {GRASS, WATER}, grid);
+            File written = new File(folder, "level.tmp");
+            TileMapFormat.writeBinary(data, new FileHandle(written), TileMapFormat.checksum(jsonFile));
+            Files.move(written.toPath(), compiled.file().toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            awaitType(map, 2, WATER);
+
+            // once the JSON changes the compiled map is stale and the JSON is read
+            write(json, jsonMap("grass.png", "grass.png", null));
+            awaitType(map, 1, GRASS);
+            assertEquals(null, map.getTileType(2, 0));
+        } finally {
+            watcher.dispose();
+            map.dispose();
+        }
+    }
+
+    // the reloads run on the watcher thread with HeadlessGdx, the map is polled until it has the type
+    private static void awaitType(TileMap map, int x, TileType type) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!type.equals(map.getTileType(x, 0))) {
+            assertTrue("cell " + x + " was never reloaded", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // a map of one row of 3 cells, null leaves a cell empty
+    private static String jsonMap(String... sprites) {
+        StringBuilder json = new StringBuilder("{\"width\": 3, \"height\": 1, \"tiles\": [[");
+        for (int x = 0; x < sprites.length; x++) {
+            if (x > 0) {
+                json.append(", ");
+            }
+            if (sprites[x] == null) {
+                json.append("{}");
+                continue;
+            }
+            boolean solid = !sprites[x].equals("water.png");
+            json.append("{\"frameDuration\": 0.5, \"solid\": ").append(solid)
+                .append(", \"sprites\": [{\"file\": \"").append(sprites[x]).append("\", \"width\": 16, \"height\": 16}]}");
+        }
+        return json.append("]]}").toString();
+    }
+
+    // the file is replaced at once, so the watcher never reads half of it
+    private void write(File file, String content) throws IOException {
+        File written = new File(folder, file.getName() + ".tmp");
+        Files.write(written.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        Files.move(written.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        written.deleteOnExit();
+        file.deleteOnExit();
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/*
+    The loader uploads at least one decoded texture per update whatever the budget, the progress
+    only grows until every requested texture is adopted by the cache, and a file that can't be
+    decoded is reported by update on the calling thread
+*/
+public class AsyncTextureLoaderTest {
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private int loads;
+
+    // the cache must never load a texture the loader uploaded
+    private final TextureCache cache = new TextureCache() {
+        @Override
+        protected Texture loadTexture(String path) {
+            loads++;
+            return super.loadTexture(path);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        HeadlessGdx.install();
+    }
+
+    @Test
+    public void progressGrowsOneUploadAtATimeWithNoBudget() throws InterruptedException {
+        String[] paths = {
+            HeadlessGdx.writePng("a.png", 16, 16).path(),
+            HeadlessGdx.writePng("b.png", 32, 16).path(),
+            HeadlessGdx.writePng("c.png", 16, 32).path()
+        };
+        AsyncTextureLoader loader = new AsyncTextureLoader(cache, 2);
+        loader.request(paths);
+        // already queued
+        loader.request(paths[0]);
+        assertEquals(0f, loader.getProgress(), 0f);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        float progress = 0f;
+        while (!loader.update(0f)) {
+            float next = loader.getProgress();
+            assertTrue(next >= progress && next - progress <= 1f / 3f + 1e-6f);
+            progress = next;
+            assertTrue("textures not decoded in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+        loader.dispose();
+
+        assertEquals(1f, loader.getProgress(), 0f);
+        for (String path : paths) {
+            assertTrue(cache.isLoaded(path));
+            assertEquals(0, cache.getReferenceCount(path));
+        }
+        assertEquals(32, cache.acquireTexture(paths[1]).getWidth());
+        assertEquals(0, loads);
+    }
+
+    @Test
+    public void loadedTexturesAreNotRequestedAgain() {
+        String path = HeadlessGdx.writePng("a.png", 16, 16).path();
+        cache.acquireTexture(path);
+        AsyncTextureLoader loader = new AsyncTextureLoader(cache, 1);
+        loader.request(path);
+
+        assertTrue(loader.isFinished());
+        assertEquals(1f, loader.getProgress(), 0f);
+        assertTrue(loader.update(0f));
+        loader.dispose();
+    }
+
+    @Test
+    public void aFileThatCantBeDecodedIsReportedByUpdate() throws InterruptedException {
+        String path = HeadlessGdx.writePng("a.png", 16, 16).path() + ".missing";
+        AsyncTextureLoader loader = new AsyncTextureLoader(cache, 1);
+        loader.request(path);
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                loader.update(0f);
+                Thread.sleep(1);
+            }
+            fail("the missing file was never reported");
+        } catch (GdxRuntimeException expected) {
+            assertTrue(expected.getMessage().contains(path));
+            assertNotNull(expected.getCause());
+        } finally {
+            loader.dispose();
+        }
+        assertEquals(0f, loader.getProgress(), 0f);
+    }
+}
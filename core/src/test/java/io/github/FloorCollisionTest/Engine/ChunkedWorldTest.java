@@ -0,0 +1,158 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ShortBuffer;
+
+import org.junit.Test;
+
+/*
+    The chunks within the load radius of the focus are resident, the ring the focus moves
+    into is loaded ahead, and the least recently used chunks outside the radius are evicted
+    while the resident chunks go over the memory budget
+*/
+public class ChunkedWorldTest {
+    // a world of 10 x 10 chunks of 8 x 8 cells of 16px
+    private static final int CHUNKS = 10;
+    private static final int CHUNK_CELLS = 8;
+    private static final float CHUNK_SIZE = CHUNK_CELLS * 16f;
+
+    // counts the chunks asked to the provider
+    private static class CountingProvider extends MapDataChunkProvider {
+        int loads;
+
+        CountingProvider(TileMapFormat.MapData data) {
+            super(data, CHUNK_CELLS, new TextureCache());
+        }
+
+        @Override
+        public TileMap loadChunk(int chunkX, int chunkY, AnimationGroups animationGroups, SpriteCachePool staticCache) {
+            loads++;
+            return super.loadChunk(chunkX, chunkY, animationGroups, staticCache);
+        }
+    }
+
+    @Test
+    public void theChunksWithinTheRadiusAreLoaded() {
+        ChunkedWorld world = new ChunkedWorld(new CountingProvider(fullMap()), 1, Long.MAX_VALUE);
+        world.stream(center(5), center(5));
+
+        assertEquals(9, world.getResidentChunkCount());
+        for (int chunkY = 0; chunkY < CHUNKS; chunkY++) {
+            for (int chunkX = 0; chunkX < CHUNKS; chunkX++) {
+                boolean inside = Math.abs(chunkX - 5) <= 1 && Math.abs(chunkY - 5) <= 1;
+                assertEquals("chunk " + chunkX + "," + chunkY, inside, world.getChunk(chunkX, chunkY) != null);
+            }
+        }
+
+        // the corner of the world has no neighbours below or on the left
+        ChunkedWorld corner = new ChunkedWorld(new CountingProvider(fullMap()), 1, Long.MAX_VALUE);
+        corner.stream(center(0), center(0));
+        assertEquals(4, corner.getResidentChunkCount());
+    }
+
+    @Test
+    public void theRingAheadOfTheFocusIsPrefetched() {
+        ChunkedWorld world = new ChunkedWorld(new CountingProvider(fullMap()), 1, Long.MAX_VALUE);
+        world.stream(center(5), center(5));
+        // moving right and up inside the same chunk
+        world.stream(center(5) + 10, center(5) + 10);
+
+        for (int d = -1; d <= 1; d++) {
+            assertNotNull(world.getChunk(7, 5 + d));
+            assertNotNull(world.getChunk(5 + d, 7));
+            assertNull(world.getChunk(3, 5 + d));
+            assertNull(world.getChunk(5 + d, 3));
+        }
+        assertNotNull(world.getChunk(7, 7));
+        assertNull(world.getChunk(3, 3));
+        assertEquals(9 + 3 + 3 + 1, world.getResidentChunkCount());
+
+        // moving left and still up
+        world.stream(center(5) - 10, center(5) + 20);
+        assertNotNull(world.getChunk(3, 5));
+        assertNotNull(world.getChunk(3, 7));
+    }
+
+    @Test
+    public void emptyChunksAreAskedOnce() {
+        TileMapFormat.MapData data = fullMap();
+        // chunk (5, 5) has no cells
+        for (int y = 5 * CHUNK_CELLS; y < 6 * CHUNK_CELLS; y++) {
+            for (int x = 5 * CHUNK_CELLS; x < 6 * CHUNK_CELLS; x++) {
+                data.grid.put(y * data.width + x, TileMapFormat.EMPTY);
+            }
+        }
+        CountingProvider provider = new CountingProvider(data);
+        ChunkedWorld world = new ChunkedWorld(provider, 1, Long.MAX_VALUE);
+        world.stream(center(5), center(5));
+        world.stream(center(5), center(5));
+
+        assertEquals(8, world.getResidentChunkCount());
+        assertNull(world.getChunk(5, 5));
+        assertEquals(9, provider.loads);
+    }
+
+    @Test
+    public void theLeastRecentlyUsedChunksAreEvictedOverTheBudget() {
+        long chunkBytes = chunkBytes();
+        long budget = 15 * chunkBytes;
+        ChunkedWorld world = new ChunkedWorld(new CountingProvider(fullMap()), 1, budget);
+
+        for (int chunkX = 1; chunkX <= 8; chunkX++) {
+            world.stream(center(chunkX), center(5));
+            assertTrue(world.getResidentBytes() <= budget);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    assertNotNull(world.getChunk(chunkX + dx, 5 + dy));
+                }
+            }
+        }
+
+        // columns 7 to 9 are around the focus, 6 and 5 were used by the last two streams
+        assertEquals(15, world.getResidentChunkCount());
+        for (int dy = -1; dy <= 1; dy++) {
+            assertNotNull(world.getChunk(5, 5 + dy));
+            assertNull(world.getChunk(4, 5 + dy));
+        }
+    }
+
+    @Test
+    public void theChunksWithinTheRadiusStayOverTheBudget() {
+        ChunkedWorld world = new ChunkedWorld(new CountingProvider(fullMap()), 1, 0);
+        world.stream(center(5), center(5));
+        world.stream(center(6), center(5));
+
+        // the prefetched ring is evicted at once, the chunks around the focus stay
+        assertEquals(9, world.getResidentChunkCount());
+        assertNotNull(world.getChunk(6, 5));
+        assertNull(world.getChunk(8, 5));
+        assertTrue(world.getResidentBytes() > 0);
+    }
+
+    // world coordinate of the middle of a chunk
+    private static float center(int chunk) {
+        return (chunk + 0.5f) * CHUNK_SIZE;
+    }
+
+    // estimated size of a freshly loaded chunk, every chunk of the full map is the same
+    private static long chunkBytes() {
+        ChunkedWorld world = new ChunkedWorld(new CountingProvider(fullMap()), 0, Long.MAX_VALUE);
+        world.stream(center(5), center(5));
+        return world.getResidentBytes();
+    }
+
+    // every cell has the same solid type
+    private static TileMapFormat.MapData fullMap() {
+        TileType[] palette = {new TileType(new String[] {"block.png"}, 0.5f, true, 16, 16)};
+        int size = CHUNKS * CHUNK_CELLS;
+        ShortBuffer grid = ShortBuffer.allocate(size * size);
+        for (int i = 0; i < grid.capacity(); i++) {
+            grid.put(i, (short) 0);
+        }
+        return new TileMapFormat.MapData(size, size, 16, 16, palette, grid);
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+    Merged floors stay split where a MergedColliders region or a TileMap chunk ends, the player
+    must walk and dash over those seams as over a single collider: same speed, same height,
+    no side contact
+*/
+public class ColliderSeamTest {
+    private static final float STEP = 1f / 60f;
+    private static final float TILE = 64f;
+    private static final float SPEED = 300f;
+
+    @Test
+    public void walkingAcrossRegionSeamsDoesNotSnag() {
+        SpatialHashGrid grid = floorGrid(0, 2048);
+        MergedColliders merged = grid.getMergedColliders();
+        assertSplitAt(merged, MergedColliders.DEFAULT_REGION_SIZE);
+
+        assertWalksAcross(merged, 100, 2 * TILE, 3 * MergedColliders.DEFAULT_REGION_SIZE);
+    }
+
+    @Test
+    public void dashingAcrossRegionSeamsDoesNotSnag() {
+        SpatialHashGrid grid = floorGrid(0, 2048);
+        assertDashesAcross(grid.getMergedColliders(), MergedColliders.DEFAULT_REGION_SIZE - 100, 2 * TILE);
+    }
+
+    @Test
+    public void walkingAcrossChunkSeamsDoesNotSnag() {
+        TileMap map = floorMap();
+        float seam = TileMap.CHUNK_SIZE * TILE;
+        assertSplitAt(map, seam);
+
+        assertWalksAcross(map, seam - 300, 2 * TILE, seam + 300);
+    }
+
+    @Test
+    public void dashingAcrossChunkSeamsDoesNotSnag() {
+        TileMap map = floorMap();
+        assertDashesAcross(map, TileMap.CHUNK_SIZE * TILE - 100, 2 * TILE);
+    }
+
+    // a floor two tiles thick between fromX and toX
+    private static SpatialHashGrid floorGrid(float fromX, float toX) {
+        SpatialHashGrid grid = new SpatialHashGrid();
+        for (float x = fromX; x < toX; x += TILE) {
+            grid.insert(new Tile(new Rectangle(x, 0, TILE, TILE), (Animation<TextureRegion>) null));
+            grid.insert(new Tile(new Rectangle(x, TILE, TILE, TILE), (Animation<TextureRegion>) null));
+        }
+        return grid;
+    }
+
+    // the same floor over two chunks of a map
+    private static TileMap floorMap() {
+        TileMap map = new TileMap(2 * TileMap.CHUNK_SIZE, 8, TILE, TILE);
+        for (int x = 0; x < map.getMapWidth(); x++) {
+            map.setSolid(x, 0, true);
+            map.setSolid(x, 1, true);
+        }
+        return map;
+    }
+
+    // the floor is made of a collider ending on the seam and one starting on it
+    private static void assertSplitAt(ColliderSource colliders, float seam) {
+        ColliderStore found = new ColliderStore();
+        colliders.gatherColliders(seam - 1, 0, 2, 2 * TILE, found);
+        assertEquals(2, found.size());
+        for (int i = 0; i < found.size(); i++) {
+            float left = found.getX(i);
+            float right = found.getX(i) + found.getWidth(i);
+            assertTrue(left == seam || right == seam);
+        }
+    }
+
+    private static void assertWalksAcross(ColliderSource colliders, float fromX, float floorTop, float toX) {
+        Player player = player(fromX, floorTop);
+        PlayerContacts contacts = new PlayerContacts();
+        settle(player, colliders, contacts);
+
+        while (player.getX() < toX) {
+            float before = player.getX();
+            player.beginStep();
+            player.updatePosition(STEP, contacts, colliders);
+            assertFalse("snagged at " + player.getX(), contacts.hasRight());
+            player.moveRight(STEP, contacts);
+
+            assertEquals(before + SPEED * STEP, player.getX(), 1e-3f);
+            assertEquals(floorTop, player.getY(), 0f);
+            assertTrue(contacts.hasGround());
+        }
+    }
+
+    private static void assertDashesAcross(ColliderSource colliders, float fromX, float floorTop) {
+        Player player = player(fromX, floorTop);
+        PlayerContacts contacts = new PlayerContacts();
+        settle(player, colliders, contacts);
+
+        float dashStep = player.getDashDistance() / player.getDashDuration() * STEP;
+        player.DashRight();
+        int steps = (int) (player.getDashDuration() / STEP);
+        for (int i = 0; i < steps; i++) {
+            float before = player.getX();
+            player.beginStep();
+            player.updatePosition(STEP, contacts, colliders);
+
+            assertEquals(before + dashStep, player.getX(), 1e-3f);
+            assertEquals(floorTop, player.getY(), 0f);
+            assertFalse("snagged at " + player.getX(), contacts.hasRight());
+        }
+        // the seam is 100px ahead of the start
+        assertTrue(player.getX() > fromX + 100);
+    }
+
+    // one step to land on the floor the player starts on
+    private static void settle(Player player, ColliderSource colliders, PlayerContacts contacts) {
+        player.beginStep();
+        player.updatePosition(STEP, contacts, colliders);
+        assertTrue(contacts.hasGround());
+    }
+
+    private static Player player(float x, float y) {
+        Player player = new Player(new Rectangle(x, y, 64, 128), new TextureRegion[] {new TextureRegion()}, 0.4f);
+        player.setMovementSpeed(SPEED);
+        return player;
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+    A disabled overlay buffers nothing and never reaches GL, an enabled one keeps the shapes
+    until the next flush
+*/
+public class DebugOverlayTest {
+
+    @Test
+    public void aDisabledOverlayDoesNothing() {
+        DebugOverlay overlay = new DebugOverlay();
+        overlay.rect(0, 0, 10, 10, 1, 0, 0, 1);
+        overlay.rect(new Rectangle(0, 0, 10, 10), 1, 0, 0, 1);
+        Player player = new Player(new Rectangle(0, 64, 64, 128), new TextureRegion[] {new TextureRegion()}, 0.4f);
+        PlayerContacts contacts = new PlayerContacts();
+        contacts.setGround(0, 0, 64, 64);
+        player.drawHitboxes(overlay);
+        player.drawAdiacentHitboxes(contacts, overlay);
+        assertEquals(0, overlay.size());
+
+        // without a GL context the flush would fail if it created its ShapeRenderer
+        GL20 gl = Gdx.gl;
+        GL20 gl20 = Gdx.gl20;
+        Gdx.gl = Gdx.gl20 = null;
+        try {
+            overlay.flush(new Matrix4());
+            overlay.dispose();
+        } finally {
+            Gdx.gl = gl;
+            Gdx.gl20 = gl20;
+        }
+    }
+
+    @Test
+    public void anEnabledOverlayBuffersUntilTheFlush() {
+        HeadlessGdx.install();
+        DebugOverlay overlay = new DebugOverlay(true);
+        overlay.rect(0, 0, 10, 10, 1, 0, 0, 1);
+        overlay.rect(new Rectangle(0, 0, 10, 10), 1, 0, 0, 1);
+        overlay.rect(null, 1, 0, 0, 1);
+        assertEquals(2, overlay.size());
+
+        overlay.flush(new Matrix4());
+        assertEquals(0, overlay.size());
+        overlay.dispose();
+    }
+
+    @Test
+    public void disablingDropsTheBufferedShapes() {
+        DebugOverlay overlay = new DebugOverlay(true);
+        overlay.rect(0, 0, 10, 10, 1, 0, 0, 1);
+        overlay.toggle();
+        assertEquals(0, overlay.size());
+        overlay.rect(0, 0, 10, 10, 1, 0, 0, 1);
+        assertEquals(0, overlay.size());
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/*
+    The sampled tables must follow the closed form of their curves between the samples,
+    hit 0 and 1 exactly at the ends and leave linear and unknown styles untouched
+*/
+public class EasingsTest {
+    // linear interpolation between 257 samples of curves with a second derivative below 5
+    private static final float TOLERANCE = 2e-5f;
+    private static final int POINTS = 10000;
+
+    @Test
+    public void tablesMatchTheClosedForms() {
+        for (int i = 0; i <= POINTS; i++) {
+            float t = i / (float) POINTS;
+            assertEquals("ease in out at " + t, (float) (-0.5 * (Math.cos(Math.PI * t) - 1)), Easings.apply(Easings.EASE_IN_OUT, t), TOLERANCE);
+            assertEquals("ease in at " + t, t * t, Easings.apply(Easings.EASE_IN, t), TOLERANCE);
+            assertEquals("ease out at " + t, 1 - (1 - t) * (1 - t), Easings.apply(Easings.EASE_OUT, t), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void curvesStartAtZeroAndEndAtOne() {
+        int[] styles = {Easings.LINEAR, Easings.EASE_IN_OUT, Easings.EASE_IN, Easings.EASE_OUT};
+        for (int style : styles) {
+            assertEquals(0f, Easings.apply(style, 0f), 0f);
+            assertEquals(1f, Easings.apply(style, 1f), 0f);
+            // progress is clamped
+            assertEquals(0f, Easings.apply(style, -3f), 0f);
+            assertEquals(1f, Easings.apply(style, 7f), 0f);
+        }
+    }
+
+    @Test
+    public void linearAndUnknownStylesReturnTheProgress() {
+        assertFalse(Easings.isRegistered(Easings.LINEAR));
+        assertFalse(Easings.isRegistered(1000));
+        for (int i = 0; i <= 100; i++) {
+            float t = i / 100f;
+            assertEquals(t, Easings.apply(Easings.LINEAR, t), 0f);
+            assertEquals(t, Easings.apply(1000, t), 0f);
+        }
+    }
+
+    @Test
+    public void registeredCurvesAreSampled() {
+        int style = 40;
+        Easings.register(style, new Easing() {
+            @Override
+            public float apply(float t) {
+                return t * t * t;
+            }
+        });
+        assertTrue(Easings.isRegistered(style));
+        for (int i = 0; i <= 100; i++) {
+            float t = i / 100f;
+            assertEquals(t * t * t, Easings.apply(style, t), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void framesAreResolvedThroughTheCurve() {
+        TextureRegion[] frames = {new TextureRegion(), new TextureRegion(), new TextureRegion(), new TextureRegion()};
+        Animation<TextureRegion> animation = new Animation<>(0.25f, frames);
+
+        // half way the linear style plays frame 2, ease in has only reached a quarter
+        assertSame(frames[2], Easings.resolveFrame(animation, Easings.LINEAR, 0.5f, false));
+        assertSame(frames[1], Easings.resolveFrame(animation, Easings.EASE_IN, 0.5f, false));
+        assertSame(frames[3], Easings.resolveFrame(animation, Easings.EASE_OUT, 0.5f, false));
+        // linear keeps looping past the end of the animation
+        assertSame(frames[1], Easings.resolveFrame(animation, Easings.LINEAR, 1.3f, true));
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.FloorCollisionTest.Engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+/*
+    Stand in for a backend in the tests that upload textures or build sprite caches
+    the native libraries are loaded for Pixmap, GL calls do nothing and report success,
+    internal files are plain files and posted runnables run at once on the caller
+*/
+final class HeadlessGdx {
+    private static boolean installed;
+
+    private HeadlessGdx() {}
+
+    static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        GdxNativesLoader.load();
+        Gdx.gl = Gdx.gl20 = stub(GL20.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                // shaders compile and link, the queries of their status read 1
+                if (method.getName().equals("glGetShaderiv") || method.getName().equals("glGetProgramiv")) {
+                    ((IntBuffer) args[2]).put(0, 1);
+                    return null;
+                }
+                return defaultValue(method.getReturnType(), 1);
+            }
+        });
+        Gdx.graphics = stub(Graphics.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return defaultValue(method.getReturnType(), 0);
+            }
+        });
+        Gdx.files = stub(Files.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("internal") || method.getName().equals("absolute") || method.getName().equals("local")) {
+                    return new FileHandle(new File((String) args[0]));
+                }
+                return defaultValue(method.getReturnType(), 0);
+            }
+        });
+        Gdx.app = stub(Application.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("postRunnable")) {
+                    ((Runnable) args[0]).run();
+                    return null;
+                }
+                if (method.getName().equals("getType")) {
+                    return Application.ApplicationType.HeadlessDesktop;
+                }
+                return defaultValue(method.getReturnType(), 0);
+            }
+        });
+        installed = true;
+    }
+
+    // a png of the given size in a new temporary folder
+    static FileHandle writePng(String name, int width, int height) {
+        try {
+            File folder = java.nio.file.Files.createTempDirectory("headless").toFile();
+            folder.deleteOnExit();
+            return writePng(new FileHandle(new File(folder, name)), width, height);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static FileHandle writePng(FileHandle file, int width, int height) {
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        PixmapIO.writePNG(file, pixmap);
+        pixmap.dispose();
+        file.file().deleteOnExit();
+        return file;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(final Class<T> type, final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                // the stubs are used as map keys, like the managed textures keyed by Gdx.app
+                if (method.getDeclaringClass() == Object.class) {
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    return type.getSimpleName() + " stub";
+                }
+                return handler.invoke(proxy, method, args);
+            }
+        });
+    }
+
+    private static Object defaultValue(Class<?> type, int number) {
+        if (type == int.class) {
+            return number;
+        }
+        if (type == long.class) {
+            return (long) number;
+        }
+        if (type == float.class) {
+            return (float) number;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == String.class) {
+            return "";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+    The merged colliders of a grid must cover exactly its tiles after any insert or remove
+*/
+public class MergedCollidersTest {
+    private static final float TILE = 64f;
+
+    @Test
+    public void mergedCollidersFollowTheGrid() {
+        Random random = new Random(7);
+        SpatialHashGrid grid = new SpatialHashGrid();
+        ArrayList<Tile> tiles = new ArrayList<>();
+        boolean[][] used = new boolean[80][20];
+        for (int i = 0; i < 600; i++) {
+            addTile(grid, tiles, used, random);
+        }
+        MergedColliders merged = grid.getMergedColliders();
+        assertCoversExactly(merged, tiles);
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 30; i++) {
+                Tile tile = tiles.remove(random.nextInt(tiles.size()));
+                used[(int) (tile.getX() / TILE)][(int) (tile.getY() / TILE)] = false;
+                assertTrue(grid.remove(tile));
+            }
+            for (int i = 0; i < 30; i++) {
+                addTile(grid, tiles, used, random);
+            }
+            assertCoversExactly(merged, tiles);
+        }
+    }
+
+    @Test
+    public void aFloorIsMergedIntoFewColliders() {
+        SpatialHashGrid grid = new SpatialHashGrid();
+        for (int x = 0; x < 4096; x += 64) {
+            grid.insert(tile(x, 0));
+        }
+        // one collider per region the floor crosses
+        assertEquals(4096 / (int) MergedColliders.DEFAULT_REGION_SIZE, grid.getMergedColliders().size());
+    }
+
+    private static void addTile(SpatialHashGrid grid, ArrayList<Tile> tiles, boolean[][] used, Random random) {
+        int column;
+        int row;
+        do {
+            column = random.nextInt(used.length);
+            row = random.nextInt(used[0].length);
+        } while (used[column][row]);
+        used[column][row] = true;
+        Tile tile = tile(column * TILE, row * TILE);
+        tiles.add(tile);
+        grid.insert(tile);
+    }
+
+    private static Tile tile(float x, float y) {
+        return new Tile(new Rectangle(x, y, TILE, TILE), (Animation<TextureRegion>) null);
+    }
+
+    // every tile is inside a merged rectangle and the rectangles cover no more area than the tiles
+    private static void assertCoversExactly(MergedColliders merged, ArrayList<Tile> tiles) {
+        ColliderStore all = new ColliderStore();
+        merged.gatherColliders(-1000, -1000, 100000, 100000, all);
+        float area = 0;
+        for (int i = 0; i < all.size(); i++) {
+            area += all.getWidth(i) * all.getHeight(i);
+        }
+        assertEquals(tiles.size() * TILE * TILE, area, 0.5f);
+
+        ColliderStore around = new ColliderStore();
+        for (Tile tile : tiles) {
+            around.clear();
+            merged.gatherColliders(tile.getX() + 1, tile.getY() + 1, 1, 1, around);
+            boolean covered = false;
+            for (int i = 0; i < around.size(); i++) {
+                covered |= around.getX(i) <= tile.getX() && around.getY(i) <= tile.getY()
+                    && around.getX(i) + around.getWidth(i) >= tile.getX() + TILE
+                    && around.getY(i) + around.getHeight(i) >= tile.getY() + TILE;
+            }
+            assertTrue("tile at " + tile.getX() + "," + tile.getY() + " not covered", covered);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+    The per frame collision path must not allocate: once the reused buffers have grown,
+    a step of updatePosition, with its contact query, allocates nothing on the heap
+*/
+public class PlayerAllocationTest {
+    private static final float STEP = 1f / 60f;
+    private static final int WARMUP_STEPS = 20000;
+    private static final int MEASURED_STEPS = 10000;
+    // a few bytes of slack for the measuring itself
+    private static final long TOLERANCE_BYTES = 256;
+
+    @Test
+    public void steppingOverAGridDoesNotAllocate() {
+        SpatialHashGrid grid = new SpatialHashGrid();
+        for (int x = -2048; x < 2048; x += 64) {
+            grid.insert(new Tile(new Rectangle(x, 0, 64, 64), (Animation<TextureRegion>) null));
+        }
+        grid.insert(new Tile(new Rectangle(256, 64, 64, 64), (Animation<TextureRegion>) null));
+        assertSteadyStateDoesNotAllocate(grid);
+    }
+
+    @Test
+    public void steppingOverMergedCollidersDoesNotAllocate() {
+        SpatialHashGrid grid = new SpatialHashGrid();
+        for (int x = -2048; x < 2048; x += 64) {
+            grid.insert(new Tile(new Rectangle(x, 0, 64, 64), (Animation<TextureRegion>) null));
+        }
+        grid.insert(new Tile(new Rectangle(256, 64, 64, 64), (Animation<TextureRegion>) null));
+        assertSteadyStateDoesNotAllocate(grid.getMergedColliders());
+    }
+
+    @Test
+    public void steppingOverAStoreDoesNotAllocate() {
+        ColliderStore store = new ColliderStore();
+        store.add(-2048, 0, 4096, 64);
+        store.add(256, 64, 64, 64);
+        assertSteadyStateDoesNotAllocate(store);
+    }
+
+    private static void assertSteadyStateDoesNotAllocate(ColliderSource colliders) {
+        Player player = new Player(new Rectangle(0, 64, 64, 128), new TextureRegion[] {new TextureRegion()}, 0.4f);
+        player.setMovementSpeed(200f);
+        PlayerContacts contacts = new PlayerContacts();
+        // merged regions are merged the first time a query reaches them, the whole level is reached once
+        colliders.gatherColliders(-4096, -4096, 8192, 8192, new ColliderStore());
+
+        simulate(player, colliders, contacts, WARMUP_STEPS);
+        long baseline = allocatedBytes() - allocatedBytes();
+        long before = allocatedBytes();
+        simulate(player, colliders, contacts, MEASURED_STEPS);
+        long allocated = allocatedBytes() - before + baseline;
+
+        assertTrue("collision steps allocated " + allocated + " bytes", allocated <= TOLERANCE_BYTES);
+    }
+
+    // walks back and forth on the floor, bumping into the block and jumping now and then
+    private static void simulate(Player player, ColliderSource colliders, PlayerContacts contacts, int steps) {
+        for (int i = 0; i < steps; i++) {
+            player.beginStep();
+            player.updatePosition(STEP, contacts, colliders);
+            if ((i / 300) % 2 == 0) {
+                player.moveRight(STEP, contacts);
+            } else {
+                player.moveLeft(STEP, contacts);
+            }
+            if (i % 120 == 0) {
+                player.jump();
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+    The grid must report the same tiles as a scan of the whole list, each of them once,
+    whatever cells a tile spans
+*/
+public class SpatialHashGridTest {
+
+    @Test
+    public void aTileSpanningManyCellsIsReportedOnce() {
+        SpatialHashGrid grid = new SpatialHashGrid(64f);
+        Tile floor = tile(-100, 0, 1000, 64);
+        grid.insert(floor);
+
+        ArrayList<Tile> found = new ArrayList<>();
+        grid.query(-200, -10, 1400, 200, found);
+        assertEquals(1, found.size());
+
+        ColliderStore colliders = new ColliderStore();
+        grid.gatherColliders(-200, -10, 1400, 200, colliders);
+        assertEquals(1, colliders.size());
+        assertEquals(-100f, colliders.getX(0), 0f);
+        assertEquals(1000f, colliders.getWidth(0), 0f);
+    }
+
+    @Test
+    public void queriesMatchABruteForceScan() {
+        Random random = new Random(3);
+        ArrayList<Tile> tiles = new ArrayList<>();
+        SpatialHashGrid grid = new SpatialHashGrid(128f);
+        for (int i = 0; i < 400; i++) {
+            Tile tile = tile(random.nextInt(4000) - 2000, random.nextInt(4000) - 2000, 1 + random.nextInt(400), 1 + random.nextInt(400));
+            tiles.add(tile);
+            grid.insert(tile);
+        }
+
+        ArrayList<Tile> found = new ArrayList<>();
+        for (int q = 0; q < 200; q++) {
+            float x = random.nextInt(4000) - 2000;
+            float y = random.nextInt(4000) - 2000;
+            float width = random.nextInt(600);
+            float height = random.nextInt(600);
+            found.clear();
+            grid.query(x, y, width, height, found);
+
+            for (Tile tile : tiles) {
+                boolean overlaps = tile.getX() < x + width && tile.getX() + tile.getWidth() > x
+                    && tile.getY() < y + height && tile.getY() + tile.getHeight() > y;
+                int occurrences = 0;
+                for (Tile other : found) {
+                    if (other == tile) {
+                        occurrences++;
+                    }
+                }
+                assertTrue("tile reported " + occurrences + " times", occurrences <= 1);
+                if (overlaps) {
+                    assertEquals("overlapping tile missing from the query", 1, occurrences);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void removedTilesAreNotReported() {
+        SpatialHashGrid grid = new SpatialHashGrid(64f);
+        Tile wide = tile(0, 0, 300, 64);
+        Tile block = tile(100, 64, 64, 64);
+        grid.insert(wide);
+        grid.insert(block);
+
+        assertTrue(grid.remove(wide));
+        assertFalse(grid.remove(wide));
+        assertEquals(1, grid.size());
+
+        ArrayList<Tile> found = new ArrayList<>();
+        grid.query(0, 0, 400, 200, found);
+        assertEquals(1, found.size());
+        assertTrue(found.get(0) == block);
+    }
+
+    private static Tile tile(float x, float y, float width, float height) {
+        return new Tile(new Rectangle(x, y, width, height), (Animation<TextureRegion>) null);
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/*
+    Slots are baked again in place while the sprites fit, freed slots are taken by the next bake
+    that fits, and the generation changes only when the slots are lost
+*/
+public class SpriteCachePoolTest {
+    private TextureRegion region;
+
+    @Before
+    public void setUp() {
+        HeadlessGdx.install();
+        Pixmap pixmap = new Pixmap(16, 16, Pixmap.Format.RGBA8888);
+        region = new TextureRegion(new Texture(pixmap));
+        pixmap.dispose();
+    }
+
+    @Test
+    public void theCacheIsMadeByTheFirstBake() {
+        SpriteCachePool pool = new SpriteCachePool(1024);
+        assertNull(pool.getCache());
+        bake(pool, -1, 10);
+        assertNotNull(pool.getCache());
+    }
+
+    @Test
+    public void aSlotIsBakedAgainInPlaceWhileItFits() {
+        SpriteCachePool pool = new SpriteCachePool(1024);
+        int slot = bake(pool, -1, 10);
+        // capacities are rounded up to 64 sprites
+        assertEquals(1024 - 64, pool.getFreeSprites());
+
+        assertEquals(slot, bake(pool, slot, 64));
+        assertEquals(slot, bake(pool, slot, 1));
+        assertEquals(1024 - 64, pool.getFreeSprites());
+        assertEquals(0, pool.getGeneration());
+    }
+
+    @Test
+    public void aSlotThatGrowsIsFreedForTheNextBakeThatFits() {
+        SpriteCachePool pool = new SpriteCachePool(1024);
+        int small = bake(pool, -1, 10);
+        int other = bake(pool, -1, 10);
+
+        int grown = bake(pool, small, 100);
+        assertTrue(grown != small && grown != other);
+        // the freed 64 sprites are still free
+        assertEquals(1024 - 64 - 128, pool.getFreeSprites());
+
+        assertEquals(small, bake(pool, -1, 20));
+        assertEquals(1024 - 64 - 64 - 128, pool.getFreeSprites());
+        assertEquals(0, pool.getGeneration());
+    }
+
+    @Test
+    public void theSmallestFreeSlotThatFitsIsTaken() {
+        SpriteCachePool pool = new SpriteCachePool(1024);
+        int big = bake(pool, -1, 200);
+        int small = bake(pool, -1, 60);
+        pool.freeSlot(big);
+        pool.freeSlot(small);
+
+        assertEquals(small, bake(pool, -1, 50));
+        assertEquals(big, bake(pool, -1, 50));
+    }
+
+    @Test
+    public void aFullCacheIsClearedAndTheGenerationChanges() {
+        SpriteCachePool pool = new SpriteCachePool(256);
+        int[] slots = new int[4];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = bake(pool, -1, 64);
+        }
+        SpriteCache cache = pool.getCache();
+        for (int slot : slots) {
+            pool.freeSlot(slot);
+        }
+
+        // no free slot holds 128 sprites, the live ones fit in half the cache so it's only cleared
+        bake(pool, -1, 128);
+        assertEquals(1, pool.getGeneration());
+        assertSame(cache, pool.getCache());
+        assertEquals(256, pool.getSize());
+        assertEquals(128, pool.getFreeSprites());
+    }
+
+    @Test
+    public void aCacheFullOfLiveSlotsGrows() {
+        SpriteCachePool pool = new SpriteCachePool(256);
+        for (int i = 0; i < 4; i++) {
+            bake(pool, -1, 64);
+        }
+        SpriteCache cache = pool.getCache();
+
+        bake(pool, -1, 64);
+        assertEquals(1, pool.getGeneration());
+        assertTrue(pool.getCache() != cache);
+        assertTrue(pool.getSize() >= 2 * 320);
+    }
+
+    @Test
+    public void disposeLosesTheSlots() {
+        SpriteCachePool pool = new SpriteCachePool(1024);
+        bake(pool, -1, 10);
+        pool.dispose();
+        assertEquals(1, pool.getGeneration());
+        assertNull(pool.getCache());
+        assertEquals(1024, pool.getFreeSprites());
+    }
+
+    private int bake(SpriteCachePool pool, int slot, int count) {
+        pool.beginSlot(slot, count);
+        for (int i = 0; i < count; i++) {
+            pool.add(region, i, 0, 16, 16);
+        }
+        return pool.endSlot();
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+/*
+    The pairs found by the sweep must be the pairs a test of every actor against every other
+    finds, after the actors move, are added or are removed
+*/
+public class SweepAndPruneTest {
+    private static final float STEP = 1f / 60f;
+
+    @Test
+    public void pairsMatchABruteForceTestAfterMoves() {
+        Random random = new Random(5);
+        SweepAndPrune broadphase = new SweepAndPrune();
+        ArrayList<Player> actors = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Player actor = actor(random);
+            actors.add(actor);
+            broadphase.add(actor);
+        }
+
+        IntArray pairs = new IntArray();
+        int found = 0;
+        for (int frame = 0; frame < 200; frame++) {
+            for (int i = 0; i < actors.size(); i++) {
+                move(actors.get(i), i, frame);
+            }
+            broadphase.update();
+            pairs.clear();
+            broadphase.findPairs(pairs);
+            assertSamePairs(bruteForcePairs(broadphase), pairs);
+            found += pairs.size / 2;
+        }
+        assertTrue("the actors never met", found > 0);
+    }
+
+    @Test
+    public void pairsMatchABruteForceTestAfterAddsAndRemoves() {
+        Random random = new Random(9);
+        SweepAndPrune broadphase = new SweepAndPrune();
+        ArrayList<Player> actors = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Player actor = actor(random);
+            actors.add(actor);
+            broadphase.add(actor);
+        }
+
+        IntArray pairs = new IntArray();
+        for (int frame = 0; frame < 100; frame++) {
+            if (frame % 3 == 0 && actors.size() > 2) {
+                Player removed = actors.remove(random.nextInt(actors.size()));
+                assertTrue(broadphase.remove(removed));
+            }
+            if (frame % 4 == 0) {
+                Player added = actor(random);
+                actors.add(added);
+                broadphase.add(added);
+            }
+            for (int i = 0; i < actors.size(); i++) {
+                move(actors.get(i), i, frame);
+            }
+            broadphase.update();
+            pairs.clear();
+            broadphase.findPairs(pairs);
+
+            assertEquals(actors.size(), broadphase.size());
+            assertSamePairs(bruteForcePairs(broadphase), pairs);
+        }
+    }
+
+    // packs a pair as (smaller index, bigger index)
+    private static long pair(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+
+    private static void assertSamePairs(HashSet<Long> expected, IntArray pairs) {
+        HashSet<Long> found = new HashSet<>();
+        for (int i = 0; i < pairs.size; i += 2) {
+            assertTrue("pair reported twice", found.add(pair(pairs.get(i), pairs.get(i + 1))));
+        }
+        assertEquals(expected, found);
+    }
+
+    // every actor against every other, on the bounds of the four side hitboxes
+    private static HashSet<Long> bruteForcePairs(SweepAndPrune broadphase) {
+        HashSet<Long> pairs = new HashSet<>();
+        for (int a = 0; a < broadphase.size(); a++) {
+            Rectangle boundsA = bounds(broadphase.getActor(a));
+            for (int b = a + 1; b < broadphase.size(); b++) {
+                Rectangle boundsB = bounds(broadphase.getActor(b));
+                if (boundsA.x <= boundsB.x + boundsB.width && boundsA.x + boundsA.width >= boundsB.x
+                    && boundsA.y <= boundsB.y + boundsB.height && boundsA.y + boundsA.height >= boundsB.y) {
+                    pairs.add(pair(a, b));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static Rectangle bounds(Player actor) {
+        Rectangle bounds = new Rectangle(actor.getPlayerHitbox(0));
+        for (int side = 1; side < 4; side++) {
+            bounds.merge(actor.getPlayerHitbox(side));
+        }
+        return bounds;
+    }
+
+    private static Player actor(Random random) {
+        Player actor = new Player(new Rectangle(random.nextInt(2000), random.nextInt(400), 64, 128),
+            new TextureRegion[] {new TextureRegion()}, 0.4f);
+        actor.setMovementSpeed(50 + random.nextInt(400));
+        // falling at different rates the actors also cross each other vertically
+        actor.setGravity(random.nextInt(150));
+        return actor;
+    }
+
+    // actors walk back and forth at their own speed while falling, crossing each other
+    private static void move(Player actor, int index, int frame) {
+        actor.updatePosition(STEP, (Rectangle) null, null, null, null);
+        if (((frame + index * 7) / 40) % 2 == 0) {
+            actor.moveRight(STEP, (Rectangle) null);
+        } else {
+            actor.moveLeft(STEP, (Rectangle) null);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+    A sweep must stop on colliders thinner than the motion of a step and must hit at time 0
+    a box already resting against a collider, without blocking motion along or away from it
+*/
+public class SweptAABBTest {
+    private static final float STEP = 1f / 60f;
+
+    @Test
+    public void aThinWallIsHitWhenTheMotionSkipsOverIt() {
+        ColliderStore colliders = new ColliderStore();
+        colliders.add(200, 0, 1, 256);
+        SweptAABB.Hit hit = new SweptAABB.Hit();
+
+        float time = SweptAABB.sweep(0, 64, 64, 128, 400, 0, colliders, hit);
+
+        assertTrue(hit.hit);
+        assertEquals((200f - 64f) / 400f, time, 1e-6f);
+        assertEquals(-1f, hit.normalX, 0f);
+        assertEquals(0f, hit.normalY, 0f);
+        assertEquals(0, hit.index);
+    }
+
+    @Test
+    public void theEarliestOfManyCollidersIsReported() {
+        ColliderStore colliders = new ColliderStore();
+        colliders.add(600, 0, 1, 256);
+        colliders.add(300, 0, 1, 256);
+        colliders.add(450, 0, 1, 256);
+        SweptAABB.Hit hit = new SweptAABB.Hit();
+
+        SweptAABB.sweep(0, 64, 64, 128, 1000, 0, colliders, hit);
+
+        assertEquals(1, hit.index);
+        assertEquals((300f - 64f) / 1000f, hit.time, 1e-6f);
+    }
+
+    @Test
+    public void aBoxRestingOnTheFloorIsHitAtTimeZero() {
+        ColliderStore colliders = new ColliderStore();
+        colliders.add(0, 0, 512, 64);
+        SweptAABB.Hit hit = new SweptAABB.Hit();
+
+        float time = SweptAABB.sweep(100, 64, 64, 128, 0, -10, colliders, hit);
+
+        assertTrue(hit.hit);
+        assertEquals(0f, time, 0f);
+        assertEquals(1f, hit.normalY, 0f);
+    }
+
+    @Test
+    public void aRestingBoxSlidesAlongAndLeavesTheFloor() {
+        ColliderStore colliders = new ColliderStore();
+        colliders.add(0, 0, 512, 64);
+        SweptAABB.Hit hit = new SweptAABB.Hit();
+
+        assertEquals(1f, SweptAABB.sweep(100, 64, 64, 128, 50, 0, colliders, hit), 0f);
+        assertFalse(hit.hit);
+        assertEquals(1f, SweptAABB.sweep(100, 64, 64, 128, 0, 10, colliders, hit), 0f);
+        assertFalse(hit.hit);
+    }
+
+    @Test
+    public void aBoxTouchingAWallIsHitAtTimeZeroOnlyTowardsIt() {
+        ColliderStore colliders = new ColliderStore();
+        colliders.add(164, 0, 64, 256);
+        SweptAABB.Hit hit = new SweptAABB.Hit();
+
+        assertEquals(0f, SweptAABB.sweep(100, 64, 64, 128, 30, 0, colliders, hit), 0f);
+        assertEquals(-1f, hit.normalX, 0f);
+        assertEquals(1f, SweptAABB.sweep(100, 64, 64, 128, -30, 0, colliders, hit), 0f);
+        assertFalse(hit.hit);
+    }
+
+    @Test
+    public void collidersOverlappingAtTheStartAreIgnored() {
+        ColliderStore colliders = new ColliderStore();
+        colliders.add(120, 80, 16, 16);
+        SweptAABB.Hit hit = new SweptAABB.Hit();
+
+        assertEquals(1f, SweptAABB.sweep(100, 64, 64, 128, 200, 0, colliders, hit), 0f);
+        assertFalse(hit.hit);
+    }
+
+    @Test
+    public void aDashStopsAtAThinWall() {
+        ColliderStore colliders = new ColliderStore();
+        colliders.add(-1024, 0, 2048, 64);
+        colliders.add(300, 64, 1, 256);
+        Player player = player(0, 64);
+        // 333px per step, five times the width of the player
+        player.setDashDistance(2000f);
+        player.setDashDuration(0.1f);
+        PlayerContacts contacts = new PlayerContacts();
+
+        player.DashRight();
+        for (int i = 0; i < 30; i++) {
+            player.beginStep();
+            player.updatePosition(STEP, contacts, colliders);
+        }
+
+        assertEquals(300f - player.getWidth(), player.getX(), 0f);
+        assertTrue(contacts.hasRight());
+    }
+
+    @Test
+    public void aFastFallLandsOnAThinFloor() {
+        ColliderStore colliders = new ColliderStore();
+        colliders.add(-1024, 0, 2048, 1);
+        Player player = player(0, 5000);
+        PlayerContacts contacts = new PlayerContacts();
+
+        for (int i = 0; i < 600; i++) {
+            player.beginStep();
+            player.updatePosition(STEP, contacts, colliders);
+            player.fallFaster(STEP, colliders);
+        }
+
+        assertEquals(1f, player.getY(), 0f);
+        assertTrue(contacts.hasGround());
+    }
+
+    private static Player player(float x, float y) {
+        return new Player(new Rectangle(x, y, 64, 128), new TextureRegion[] {new TextureRegion()}, 0.4f);
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/*
+    A texture is loaded once for all its users and disposed with the last of them; a reload
+    keeps the texture, the frames and the animations handed out and sets their regions again
+*/
+public class TextureCacheTest {
+    private int loads;
+
+    // counts the uploads, the texture is loaded as the cache would
+    private final TextureCache cache = new TextureCache() {
+        @Override
+        protected Texture loadTexture(String path) {
+            loads++;
+            return super.loadTexture(path);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        HeadlessGdx.install();
+    }
+
+    @Test
+    public void aTextureIsLoadedOnceAndDisposedWithItsLastUser() {
+        String path = HeadlessGdx.writePng("sheet.png", 64, 32).path();
+
+        Texture first = cache.acquireTexture(path);
+        Texture second = cache.acquireTexture(path);
+        assertSame(first, second);
+        assertEquals(1, loads);
+        assertEquals(2, cache.getReferenceCount(path));
+
+        cache.releaseTexture(path);
+        assertEquals(1, cache.getReferenceCount(path));
+        assertTrue(cache.isLoaded(path));
+
+        cache.releaseTexture(path);
+        assertFalse(cache.isLoaded(path));
+        assertEquals(0, cache.getTextureCount());
+        try {
+            cache.releaseTexture(path);
+            fail("released a texture with no users");
+        } catch (IllegalStateException expected) {
+        }
+
+        cache.acquireTexture(path);
+        assertEquals(2, loads);
+    }
+
+    @Test
+    public void framesAndAnimationsHoldOneReferenceToTheirTexture() {
+        String path = HeadlessGdx.writePng("sheet.png", 64, 32).path();
+
+        TextureRegion[] frames = cache.acquireFrames(path, 32, 32, 0);
+        assertSame(frames, cache.acquireFrames(path, 32, 32, 0));
+        Animation<TextureRegion> animation = cache.acquireAnimation(path, 32, 32, 0, 0.1f);
+        assertSame(animation, cache.acquireAnimation(path, 32, 32, 0, 0.1f));
+        assertEquals(2, frames.length);
+        assertEquals(1, loads);
+        assertEquals(1, cache.getReferenceCount(path));
+
+        cache.releaseAnimation(animation);
+        cache.releaseAnimation(animation);
+        cache.releaseFrames(frames);
+        assertTrue(cache.isLoaded(path));
+        cache.releaseFrames(frames);
+        assertFalse(cache.isLoaded(path));
+    }
+
+    @Test
+    public void aReloadKeepsTheTextureAndResizesTheRegions() {
+        FileHandle file = HeadlessGdx.writePng("sheet.png", 64, 32);
+        String path = file.path();
+        Texture texture = cache.acquireTexture(path);
+        TextureRegion[] frames = cache.acquireFrames(path, 32, 32, 0);
+        Animation<TextureRegion> whole = cache.acquireAnimation(new String[] {path}, 0.1f);
+        assertEquals(0.5f, frames[1].getU(), 0f);
+
+        HeadlessGdx.writePng(file, 128, 64);
+        assertTrue(cache.reloadTexture(path));
+
+        assertSame(texture, cache.acquireTexture(path));
+        assertEquals(1, loads);
+        assertEquals(128, texture.getWidth());
+        // the frames keep their index and take the bounds sliced from the new sheet
+        assertEquals(32, frames[1].getRegionX());
+        assertEquals(32, frames[1].getRegionWidth());
+        assertEquals(0.25f, frames[1].getU(), 1e-6f);
+        assertEquals(0.5f, frames[1].getU2(), 1e-6f);
+        assertEquals(128, whole.getKeyFrame(0).getRegionWidth());
+        assertEquals(1f, whole.getKeyFrame(0).getU2(), 0f);
+    }
+
+    @Test
+    public void onlyLoadedTexturesAreReloaded() {
+        String path = HeadlessGdx.writePng("sheet.png", 64, 32).path();
+        assertFalse(cache.reloadTexture(path));
+        assertEquals(0, loads);
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ShortBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/*
+    A map written in the binary format must read back equal through the memory mapped path,
+    palettes and sprite lists past Short.MAX_VALUE included, and a grid whose ids don't fit
+    the palette must be refused when it's read
+*/
+public class TileMapFormatTest {
+
+    @Test
+    public void aMapReadsBackEqual() {
+        TileType[] palette = {
+            new TileType(new String[] {"grass.png"}, 0.5f, true, 64, 64),
+            new TileType(new String[] {"water0.png", "water1.png", "water2.png"}, 0.2f, false, 64, 64),
+            new TileType(new String[] {"\u00e0\u00e8.png"}, 1f, true, 32, 32)
+        };
+        Random random = new Random(21);
+        ShortBuffer grid = ShortBuffer.allocate(70 * 45);
+        for (int i = 0; i < grid.capacity(); i++) {
+            grid.put(i, (short) (random.nextInt(palette.length + 1) - 1));
+        }
+        TileMapFormat.MapData written = new TileMapFormat.MapData(70, 45, 64, 64, palette, grid);
+
+        FileHandle file = tempFile("map.tmap");
+        TileMapFormat.writeBinary(written, file);
+        // a file on disk is memory mapped
+        assertRead(written, TileMapFormat.readBinary(file));
+    }
+
+    @Test
+    public void palettesAndSpriteListsPastTheSignedRangeReadBack() {
+        TileType[] palette = new TileType[TileMapFormat.MAX_PALETTE_SIZE];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = new TileType(new String[] {"t" + i}, 0.5f, true, 16, 16);
+        }
+        String[] sprites = new String[40000];
+        for (int i = 0; i < sprites.length; i++) {
+            sprites[i] = "s";
+        }
+        palette[0] = new TileType(sprites, 0.1f, true, 16, 16);
+        ShortBuffer grid = ShortBuffer.allocate(4);
+        grid.put(0, (short) 0).put(1, Short.MAX_VALUE).put(2, TileMapFormat.EMPTY).put(3, (short) 1);
+        TileMapFormat.MapData written = new TileMapFormat.MapData(2, 2, 16, 16, palette, grid);
+
+        FileHandle file = tempFile("big.tmap");
+        TileMapFormat.writeBinary(written, file);
+        TileMapFormat.MapData read = TileMapFormat.readBinary(file);
+
+        assertRead(written, read);
+        assertEquals(40000, read.palette[0].getSpriteCount());
+    }
+
+    @Test
+    public void aPaletteTooBigForTheIdsIsNotWritten() {
+        TileType[] palette = new TileType[TileMapFormat.MAX_PALETTE_SIZE + 1];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = new TileType(new String[] {"t" + i}, 0.5f, true, 16, 16);
+        }
+        FileHandle file = tempFile("too-big.tmap");
+        try {
+            TileMapFormat.writeBinary(new TileMapFormat.MapData(1, 1, 16, 16, palette, ShortBuffer.allocate(1)), file);
+            fail("wrote a palette with more types than ids");
+        } catch (GdxRuntimeException expected) {
+        }
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void idsOutsideThePaletteAreRefused() throws IOException {
+        TileType[] palette = {new TileType(new String[] {"grass.png"}, 0.5f, true, 64, 64)};
+        ShortBuffer grid = ShortBuffer.allocate(6);
+        grid.put(0, (short) 0).put(1, TileMapFormat.EMPTY);
+        FileHandle file = tempFile("corrupt.tmap");
+        TileMapFormat.writeBinary(new TileMapFormat.MapData(3, 2, 64, 64, palette, grid), file);
+        TileMapFormat.readBinary(file);
+
+        // the last cell gets type 1, and then a negative type other than EMPTY
+        short[] corrupted = {1, -7};
+        for (short id : corrupted) {
+            RandomAccessFile raw = new RandomAccessFile(file.file(), "rw");
+            try {
+                raw.seek(raw.length() - 2);
+                raw.writeShort(id);
+            } finally {
+                raw.close();
+            }
+            try {
+                TileMapFormat.readBinary(file);
+                fail("read a cell of type " + id + " with a palette of 1 type");
+            } catch (GdxRuntimeException expected) {
+                assertTrue(expected.getMessage().contains("cell 2,1"));
+            }
+        }
+    }
+
+    private static void assertRead(TileMapFormat.MapData expected, TileMapFormat.MapData actual) {
+        assertEquals(expected.width, actual.width);
+        assertEquals(expected.height, actual.height);
+        assertEquals(expected.tileWidth, actual.tileWidth, 0f);
+        assertEquals(expected.tileHeight, actual.tileHeight, 0f);
+        assertEquals(expected.palette.length, actual.palette.length);
+        for (int i = 0; i < expected.palette.length; i++) {
+            assertEquals(expected.palette[i], actual.palette[i]);
+        }
+        for (int y = 0; y < expected.height; y++) {
+            for (int x = 0; x < expected.width; x++) {
+                assertEquals("cell " + x + "," + y, expected.getTypeId(x, y), actual.getTypeId(x, y));
+            }
+        }
+    }
+
+    private static FileHandle tempFile(String name) {
+        try {
+            File folder = java.nio.file.Files.createTempDirectory("tilemap").toFile();
+            folder.deleteOnExit();
+            File file = new File(folder, name);
+            file.deleteOnExit();
+            return new FileHandle(file);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
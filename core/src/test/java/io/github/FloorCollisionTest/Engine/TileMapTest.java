@@ -0,0 +1,264 @@
+package io.github.FloorCollisionTest.Engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ShortBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+
+/*
+    The solidity bits of a TileMap must answer like the cells they are made from, bits 0 and 31
+    of a chunk row word included, whatever range a row query starts and ends at
+    an edit merges and bakes again only the chunks holding the cells it changed, and a new
+    version of the map applies the cells it changed over the edits made at runtime
+*/
+public class TileMapTest {
+    private static final int LAST_BIT = TileMap.CHUNK_SIZE - 1;
+    // a map of 4 x 3 chunks, the last column and row of chunks are not full
+    private static final int WIDTH = 3 * TileMap.CHUNK_SIZE + 10;
+    private static final int HEIGHT = 2 * TileMap.CHUNK_SIZE + 5;
+    private static final TileType BLOCK = new TileType(new String[] {"block.png"}, 0.5f, true, 16, 16);
+    private static final TileType GRASS = new TileType(new String[] {"grass.png"}, 0.5f, false, 16, 16);
+    private static final TileType STONE = new TileType(new String[] {"stone.png"}, 0.5f, true, 16, 16);
+    private static final TileType LAVA = new TileType(new String[] {"lava0.png", "lava1.png"}, 0.2f, false, 16, 16);
+
+    @Test
+    public void cellsOnTheEdgesOfAWordAreSolid() {
+        TileMap map = new TileMap(96, 4, 64, 64);
+        map.setSolid(0, 0, true);
+        map.setSolid(LAST_BIT, 0, true);
+        map.setSolid(TileMap.CHUNK_SIZE, 1, true);
+
+        assertTrue(map.isSolid(0, 0));
+        assertTrue(map.isSolid(LAST_BIT, 0));
+        assertFalse(map.isSolid(1, 0));
+        assertFalse(map.isSolid(LAST_BIT - 1, 0));
+        assertTrue(map.isSolid(TileMap.CHUNK_SIZE, 1));
+
+        map.setSolid(LAST_BIT, 0, false);
+        assertFalse(map.isSolid(LAST_BIT, 0));
+        assertTrue(map.isSolid(0, 0));
+    }
+
+    @Test
+    public void theStartMaskKeepsBitsFromTheFirstColumn() {
+        TileMap map = new TileMap(64, 1, 64, 64);
+        map.setSolid(0, 0, true);
+        map.setSolid(LAST_BIT, 0, true);
+
+        // -1 << 0 keeps every bit, -1 << 31 keeps only the last one
+        assertEquals(0, map.firstSolidInRow(0, 0, LAST_BIT));
+        assertEquals(LAST_BIT, map.firstSolidInRow(0, 1, LAST_BIT));
+        assertEquals(LAST_BIT, map.firstSolidInRow(0, LAST_BIT, LAST_BIT));
+        assertEquals(-1, map.firstSolidInRow(0, 1, LAST_BIT - 1));
+    }
+
+    @Test
+    public void theEndMaskKeepsBitsUpToTheLastColumn() {
+        TileMap map = new TileMap(64, 1, 64, 64);
+        map.setSolid(LAST_BIT, 0, true);
+
+        // -1 >>> 31 keeps only bit 0, -1 >>> 0 keeps every bit
+        assertEquals(-1, map.firstSolidInRow(0, 0, 0));
+        assertEquals(-1, map.firstSolidInRow(0, 0, LAST_BIT - 1));
+        assertEquals(LAST_BIT, map.firstSolidInRow(0, 0, LAST_BIT));
+
+        map.setSolid(0, 0, true);
+        assertEquals(0, map.firstSolidInRow(0, 0, 0));
+    }
+
+    @Test
+    public void rowQueriesCrossChunks() {
+        TileMap map = new TileMap(100, 1, 64, 64);
+        map.setSolid(TileMap.CHUNK_SIZE, 0, true);
+        map.setSolid(99, 0, true);
+
+        // the query starts on the last bit of a word and goes on in the next chunk
+        assertEquals(TileMap.CHUNK_SIZE, map.firstSolidInRow(0, LAST_BIT, 99));
+        assertEquals(99, map.firstSolidInRow(0, TileMap.CHUNK_SIZE + 1, 99));
+        // the map ends in the middle of the last word
+        assertEquals(99, map.firstSolidInRow(0, 40, 500));
+        assertEquals(-1, map.firstSolidInRow(0, 0, LAST_BIT));
+    }
+
+    @Test
+    public void rowQueriesMatchAScanOfTheCells() {
+        Random random = new Random(11);
+        TileMap map = new TileMap(150, 3, 64, 64);
+        boolean[][] solid = new boolean[150][3];
+        for (int i = 0; i < 120; i++) {
+            int x = random.nextInt(150);
+            int y = random.nextInt(3);
+            solid[x][y] = !solid[x][y];
+            map.setSolid(x, y, solid[x][y]);
+        }
+
+        for (int y = 0; y < 3; y++) {
+            for (int fromX = 0; fromX < 150; fromX++) {
+                for (int toX = fromX; toX < 150; toX++) {
+                    int expected = -1;
+                    for (int x = fromX; x <= toX; x++) {
+                        if (solid[x][y]) {
+                            expected = x;
+                            break;
+                        }
+                    }
+                    assertEquals("row " + y + " from " + fromX + " to " + toX, expected, map.firstSolidInRow(y, fromX, toX));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void setTileTouchesOnlyItsChunk() {
+        TileMap map = cleanMap();
+        map.setTile(TileMap.CHUNK_SIZE + 3, 2 * TileMap.CHUNK_SIZE + 1, BLOCK);
+        assertTouched(map, 1, 1, 2, 2, true);
+
+        // a type with the same solidity is baked again, the colliders stay merged
+        map = cleanMap();
+        map.setTile(5, 5, GRASS);
+        assertTouched(map, 0, 0, 0, 0, false);
+
+        // writing the type a cell already has changes nothing
+        map = cleanMap();
+        map.setTile(5, 5, null);
+        map.removeTile(WIDTH - 1, HEIGHT - 1);
+        assertTouched(map, 0, -1, 0, -1, true);
+    }
+
+    @Test
+    public void fillRectTouchesOnlyTheChunksItCovers() {
+        // four cells around the corner shared by the first four chunks
+        TileMap map = cleanMap();
+        map.fillRect(LAST_BIT, LAST_BIT, 2, 2, BLOCK);
+        assertTouched(map, 0, 1, 0, 1, true);
+
+        // the area is clipped to the map, only the last chunk is inside
+        map = cleanMap();
+        map.fillRect(WIDTH - 2, HEIGHT - 2, 50, 50, BLOCK);
+        assertTouched(map, 3, 3, 2, 2, true);
+
+        // the empty cells of a chunk are left as they are
+        map = cleanMap();
+        map.fillRect(0, 0, WIDTH, HEIGHT, null);
+        assertTouched(map, 0, -1, 0, -1, true);
+
+        map = cleanMap();
+        map.fillRect(TileMap.CHUNK_SIZE, 0, 2 * TileMap.CHUNK_SIZE, 1, GRASS);
+        assertTouched(map, 1, 2, 0, 0, false);
+        assertTrue(map.isChunkMerged(1, 0));
+    }
+
+    @Test
+    public void applyChangesKeepsTheEditsTheNewVersionDidntTouch() {
+        TileMapFormat.MapData first = mapData(BLOCK, GRASS);
+        first.grid.put(0, (short) 0).put(1, (short) 1);
+        TileMap map = new TileMap(first, new TextureCache());
+        map.setTile(2, 0, BLOCK);
+        map.setTile(3, 0, STONE);
+        map.setTile(4, 0, GRASS);
+
+        // BLOCK is dropped, cell 0 and the edited cell 4 are changed, cell 5 is new
+        TileMapFormat.MapData second = mapData(GRASS, LAVA);
+        second.grid.put(0, (short) 0).put(1, (short) 0).put(4, (short) 1).put(5, (short) 1);
+        assertEquals(3, map.applyChanges(second));
+
+        TileType[] expected = {GRASS, GRASS, BLOCK, STONE, LAVA, LAVA, null};
+        assertRow(map, expected);
+        assertTrue(map.isSolid(2, 0));
+        assertFalse(map.isSolid(0, 0));
+        // the types of the new version, then the ones only the kept edits use
+        assertEquals(4, map.getPaletteSize());
+        assertEquals(GRASS, map.getPaletteType((short) 0));
+        assertEquals(LAVA, map.getPaletteType((short) 1));
+        assertEquals(BLOCK, map.getPaletteType((short) 2));
+        assertEquals(STONE, map.getPaletteType((short) 3));
+
+        // the same version again changes nothing
+        assertEquals(0, map.applyChanges(second));
+        assertRow(map, expected);
+
+        // a version changing an edited cell replaces the edit, its type isn't used anymore
+        TileMapFormat.MapData third = mapData(GRASS, LAVA);
+        third.grid.put(0, (short) 0).put(1, (short) 0).put(2, (short) 0).put(4, (short) 1).put(5, (short) 1);
+        assertEquals(1, map.applyChanges(third));
+        assertRow(map, new TileType[] {GRASS, GRASS, GRASS, STONE, LAVA, LAVA, null});
+        assertEquals(3, map.getPaletteSize());
+        assertEquals(STONE, map.getPaletteType((short) 2));
+        assertFalse(map.isSolid(2, 0));
+    }
+
+    @Test
+    public void applyChangesTouchesOnlyTheChangedChunks() {
+        TileMap map = clean(new TileMap(mapData(BLOCK), new TextureCache()));
+        TileMapFormat.MapData next = mapData(BLOCK);
+        next.grid.put((TileMap.CHUNK_SIZE + 2) * WIDTH + 2 * TileMap.CHUNK_SIZE + 7, (short) 0);
+        assertEquals(1, map.applyChanges(next));
+        assertTouched(map, 2, 2, 1, 1, true);
+        assertEquals(BLOCK, map.getTileType(2 * TileMap.CHUNK_SIZE + 7, TileMap.CHUNK_SIZE + 2));
+
+        try {
+            map.applyChanges(new TileMapFormat.MapData(WIDTH + 1, HEIGHT, 16, 16, new TileType[0], ShortBuffer.allocate((WIDTH + 1) * HEIGHT)));
+            fail("applied a version of another size");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    // an empty map whose chunks are all merged and baked
+    private static TileMap cleanMap() {
+        return clean(new TileMap(WIDTH, HEIGHT, 16, 16));
+    }
+
+    // merges and bakes every chunk of a map with no sprites
+    private static TileMap clean(TileMap map) {
+        map.gatherColliders(0, 0, WIDTH * 16, HEIGHT * 16, new ColliderStore(4));
+        // the chunks have no sprites to bake, so no GL is reached
+        OrthographicCamera camera = new OrthographicCamera(WIDTH * 16, HEIGHT * 16);
+        camera.position.set(WIDTH * 8, HEIGHT * 8, 0);
+        map.renderStatic(camera);
+        for (int chunkY = 0; chunkY < 3; chunkY++) {
+            for (int chunkX = 0; chunkX < 4; chunkX++) {
+                assertTrue(map.isChunkMerged(chunkX, chunkY));
+                assertFalse(map.isChunkRenderDirty(chunkX, chunkY));
+            }
+        }
+        return map;
+    }
+
+    /*
+        the chunks between (fromX, fromY) and (toX, toY) included must be baked again, and merged
+        again too when solid is true; every other chunk is left as it was
+    */
+    private static void assertTouched(TileMap map, int fromX, int toX, int fromY, int toY, boolean solid) {
+        for (int chunkY = 0; chunkY < 3; chunkY++) {
+            for (int chunkX = 0; chunkX < 4; chunkX++) {
+                boolean touched = chunkX >= fromX && chunkX <= toX && chunkY >= fromY && chunkY <= toY;
+                assertEquals("chunk " + chunkX + "," + chunkY + " baked", !touched, !map.isChunkRenderDirty(chunkX, chunkY));
+                assertEquals("chunk " + chunkX + "," + chunkY + " merged", !(touched && solid), map.isChunkMerged(chunkX, chunkY));
+            }
+        }
+    }
+
+    // types of the first cells of row 0, null for the empty ones
+    private static void assertRow(TileMap map, TileType[] expected) {
+        for (int x = 0; x < expected.length; x++) {
+            assertEquals("cell " + x, expected[x], map.getTileType(x, 0));
+        }
+    }
+
+    // a version of the map with every cell empty
+    private static TileMapFormat.MapData mapData(TileType... palette) {
+        ShortBuffer grid = ShortBuffer.allocate(WIDTH * HEIGHT);
+        for (int i = 0; i < grid.capacity(); i++) {
+            grid.put(i, TileMapFormat.EMPTY);
+        }
+        return new TileMapFormat.MapData(WIDTH, HEIGHT, 16, 16, palette, grid);
+    }
+}
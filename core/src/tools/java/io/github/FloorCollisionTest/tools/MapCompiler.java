@@ -0,0 +1,55 @@
+package io.github.FloorCollisionTest.tools;
+
+import java.io.File;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonValue;
+
+import io.github.FloorCollisionTest.Engine.TileMapFormat;
+
+/*
+    Build time compiler of the authored maps, run by the compileAssets task of core/build.gradle
+        MapCompiler <sourceDir> <outputDir>
+    every JSON map under sourceDir is written as a binary map, see TileMapFormat, keeping the
+    relative paths, so TileMapFormat.read finds it next to the authored file; other JSON files,
+    like skins, are skipped
+    runs without a GL context and without the native libraries, it isn't part of the game
+*/
+public final class MapCompiler {
+    private MapCompiler() {}
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("usage: MapCompiler <sourceDir> <outputDir>");
+            System.exit(1);
+        }
+        FileHandle source = new FileHandle(new File(args[0]));
+        FileHandle output = new FileHandle(new File(args[1]));
+        int compiled = compileAll(source, output);
+        System.out.println("compiled " + compiled + " maps from " + source.path() + " into " + output.path());
+    }
+
+    // compiles every map under source, returns how many were written
+    public static int compileAll(FileHandle source, FileHandle output) {
+        if (!source.isDirectory()) {
+            return 0;
+        }
+        int compiled = 0;
+        for (FileHandle file : source.list()) {
+            if (file.isDirectory()) {
+                compiled += compileAll(file, output.child(file.name()));
+            } else if (file.extension().equals("json") && isMap(file)) {
+                TileMapFormat.compile(file, TileMapFormat.compiledFile(output.child(file.name())));
+                compiled++;
+            }
+        }
+        return compiled;
+    }
+
+    // a JSON file is a map when it has the fields TileMapFormat.readJson reads
+    static boolean isMap(FileHandle file) {
+        JsonValue json = new Json().fromJson(null, file);
+        return json != null && json.isObject() && json.has("width") && json.has("height") && json.has("tiles");
+    }
+}